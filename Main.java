@@ -2,6 +2,7 @@ import game.Difficulty;
 import game.Leaderboard;
 import game.client.GameClient;
 import game.client.LocalGameClient;
+import game.client.NioGameClient;
 import game.client.RemoteGameClient;
 import game.Constants;
 import game.server.GameServer;
@@ -124,6 +125,10 @@ public class Main {
                     client = new LocalGameClient(difficulty, leaderboard);
                     break MainLoop;
                 case 2: // assign multiplayer client
+                    if (Constants.TRANSPORT.equals("nio")) {
+                        client = new NioGameClient(Constants.SERVER_IP, Constants.NIO_PORT, difficulty, leaderboard);
+                        break MainLoop;
+                    }
                     try {
                         Registry registry = LocateRegistry.getRegistry(Constants.SERVER_IP, 1099);
                         GameServer server = (GameServer) registry.lookup(Constants.REMOTE_SERVER_NAME);
@@ -0,0 +1,41 @@
+package benchmarks;
+
+import game.Difficulty;
+import game.Game;
+import game.ScoreTracker;
+import game.model.Asteroid;
+import game.model.GameObject;
+import utilities.SeededRandom;
+
+/**
+ * Game states shared by the benchmarks. Nothing here touches the display or the sound manager.
+ */
+class Fixtures {
+    static final int ROUND_TIME = 1_000_000; //long enough for the round never to end during a run
+    static final int WARM_UP_TICKS = 10; //steps run before measuring so that the lazy state of the game exists
+    static final long SEED = 42; //seed of the games, so every run measures the same game
+
+    /**
+     * @param objects number of game objects (asteroids, the 3 black holes and the ship of one player)
+     * @return game with the given number of objects, already stepped a few times
+     */
+    static Game populatedGame(int objects) {
+        Game game = new Game(new ScoreTracker(ROUND_TIME), new Difficulty(Math.max(0, objects - 4), 0, ROUND_TIME), SEED);
+        game.init();
+        game.newPlayer("benchmark");
+        for (int i = 0; i < WARM_UP_TICKS; i++)
+            game.step();
+        return game;
+    }
+
+    /**
+     * @return random asteroids spread over the whole world
+     */
+    static GameObject[] randomAsteroids(int number) {
+        SeededRandom random = new SeededRandom(SEED);
+        GameObject[] asteroids = new GameObject[number];
+        for (int i = 0; i < number; i++)
+            asteroids[i] = Asteroid.makeRandomAsteroid(random);
+        return asteroids;
+    }
+}
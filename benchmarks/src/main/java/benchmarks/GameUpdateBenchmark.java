@@ -0,0 +1,34 @@
+package benchmarks;
+
+import game.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single simulation step (collisions, movement, particles) for a growing number of objects.
+ * The game is rebuilt before every iteration so that objects destroyed during the previous one are back.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dasteroids.headless=true"})
+public class GameUpdateBenchmark {
+    @Param({"50", "500", "5000"})
+    public int objects;
+
+    private Game game;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        game = Fixtures.populatedGame(objects);
+    }
+
+    @Benchmark
+    public long tick() {
+        game.step();
+        return game.getTick();
+    }
+}
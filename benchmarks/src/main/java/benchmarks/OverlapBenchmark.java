@@ -0,0 +1,45 @@
+package benchmarks;
+
+import game.model.GameObject;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the pairwise overlap test over all pairs of a fixed set of asteroids.
+ * The legacy java.awt.geom.Area test is measured as well for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dasteroids.headless=true"})
+public class OverlapBenchmark {
+    private static final int OBJECTS = 256;
+    private static final int PAIRS = OBJECTS * (OBJECTS - 1) / 2;
+
+    private GameObject[] asteroids;
+
+    @Setup
+    public void setUp() {
+        asteroids = Fixtures.randomAsteroids(OBJECTS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void overlap(Blackhole bh) {
+        for (int i = 0; i < OBJECTS; i++)
+            for (int j = i + 1; j < OBJECTS; j++)
+                bh.consume(asteroids[i].overlap(asteroids[j]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void overlapArea(Blackhole bh) {
+        for (int i = 0; i < OBJECTS; i++)
+            for (int j = i + 1; j < OBJECTS; j++)
+                bh.consume(asteroids[i].overlapArea(asteroids[j]));
+    }
+}
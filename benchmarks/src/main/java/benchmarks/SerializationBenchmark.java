@@ -0,0 +1,37 @@
+package benchmarks;
+
+import game.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialisation of a populated game, as done by Game.save.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dasteroids.headless=true"})
+public class SerializationBenchmark {
+    @Param({"50", "500"})
+    public int objects;
+
+    private Game game;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setUp() {
+        game = Fixtures.populatedGame(objects);
+    }
+
+    @Benchmark
+    public int save() throws IOException {
+        bytes.reset();
+        game.save(bytes);
+        return bytes.size();
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import game.Constants;
+import org.openjdk.jmh.annotations.*;
+import utilities.Vector2D;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vector2D arithmetic as used by the movement of the game objects.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Dasteroids.headless=true"})
+public class Vector2DBenchmark {
+    private final Vector2D position = new Vector2D(100, 200);
+    private final Vector2D velocity = new Vector2D(30, -40);
+    private final Vector2D direction = new Vector2D(1, 0);
+    private final Vector2D other = new Vector2D(1500, 900);
+
+    @Benchmark
+    public Vector2D move() {
+        velocity.addScaled(direction, Constants.DT * 100).mult(0.99);
+        return position.addScaled(velocity, Constants.DT).wrap(Constants.WORLD_WIDTH, Constants.WORLD_HEIGHT);
+    }
+
+    @Benchmark
+    public Vector2D rotate() {
+        return direction.rotate(0.01).normalise();
+    }
+
+    @Benchmark
+    public double distance() {
+        return position.dist(other) + position.angle(other);
+    }
+
+    @Benchmark
+    public Vector2D allocate() {
+        return new Vector2D(other).subtract(position).normalise().mult(10);
+    }
+}
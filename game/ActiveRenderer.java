@@ -0,0 +1,127 @@
+package game;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Active rendering of the View. A dedicated thread draws the frames into a BufferStrategy of the window at a
+ * target frame rate, so the frame timing depends neither on the event dispatch thread and the repaint
+ * coalescing of Swing nor on the simulation tick.
+ */
+public class ActiveRenderer implements Runnable {
+    private static final int BUFFERS = 2; //number of buffers of the strategy (double buffering)
+
+    private final Window window; //window the frames are shown in
+    private final View view; //view drawing a frame
+    private final long frameNanos; //time between two frames at the target frame rate
+    private final FrameStats stats = new FrameStats(240); //statistics of the last frames
+    private Thread thread; //render thread, null if not running
+    private volatile boolean running; //false once the renderer has been asked to stop
+
+    /**
+     * @param window window the frames are shown in, must be displayable
+     * @param view   view drawing a frame
+     * @param fps    target frame rate, positive
+     */
+    public ActiveRenderer(Window window, View view, int fps) {
+        if (fps <= 0)
+            throw new IllegalArgumentException("Frame rate must be positive: " + fps);
+        this.window = window;
+        this.view = view;
+        this.frameNanos = 1_000_000_000L / fps;
+    }
+
+    /**
+     * Stops Swing from painting the window and starts the render thread.
+     */
+    public synchronized void start() {
+        if (thread != null)
+            return;
+        window.setIgnoreRepaint(true);
+        view.setIgnoreRepaint(true);
+        window.createBufferStrategy(BUFFERS);
+        running = true;
+        thread = new Thread(this, "renderer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the render thread after the current frame.
+     */
+    public synchronized void stop() {
+        running = false;
+        thread = null;
+    }
+
+    /**
+     * Render loop. Draws a frame, then sleeps until the next one is due. Frames which are already late are not
+     * caught up with but dropped, so a slow frame does not cause a burst of frames after it.
+     */
+    @Override
+    public void run() {
+        BufferStrategy strategy = window.getBufferStrategy();
+        long last = System.nanoTime();
+        long next = last + frameNanos;
+        while (running) {
+            render(strategy);
+
+            long now = System.nanoTime();
+            stats.record(now - last);
+            last = now;
+
+            if (now - next > frameNanos) { //more than a frame late - start again from now
+                stats.drop((now - next) / frameNanos);
+                next = now;
+            }
+            sleepUntil(next);
+            next += frameNanos;
+        }
+    }
+
+    /**
+     * Draws a frame into the back buffer and shows it, repeating it if the contents of the buffer were lost.
+     */
+    private void render(BufferStrategy strategy) {
+        Insets insets = window.getInsets();
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g.translate(insets.left, insets.top);
+                    g.setColor(Color.BLACK);
+                    g.fillRect(0, 0, view.getWidth(), view.getHeight());
+                    view.render(g);
+                    if (Constants.SHOW_FRAME_STATS) {
+                        g.setColor(Color.WHITE);
+                        g.drawString(stats.toString(), 5, Constants.FRAME_HEIGHT - 10);
+                    }
+                } catch (RuntimeException e) { //the game may be replaced while it is drawn - draw the next frame
+                    e.printStackTrace();
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    private void sleepUntil(long time) {
+        long wait = time - System.nanoTime();
+        if (wait <= 0)
+            return;
+        try {
+            Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+        } catch (InterruptedException e) {
+            running = false;
+        }
+    }
+
+    /**
+     * @return frame time statistics of the renderer
+     */
+    public FrameStats getStats() {
+        return stats;
+    }
+}
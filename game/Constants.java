@@ -1,15 +1,18 @@
 package game;
 
-import java.awt.*;
-import java.util.Random;
-
 /**
  * Constant class holding static constants variables used throughout the game.
  */
 public class Constants {
-    public static final int FRAME_HEIGHT = GameWindow.HEIGHT; //Height of the Frame
-    public static final int FRAME_WIDTH = GameWindow.WIDTH; //Width of the Frame
-    public static final Dimension FRAME_SIZE = new Dimension(Constants.FRAME_WIDTH, Constants.FRAME_HEIGHT); //Frame dimensions combined together
+    //run the simulation without loading AWT, Swing or the sounds (server, benchmarks, training)
+    public static final boolean HEADLESS = Boolean.getBoolean("asteroids.headless");
+
+    //Frame size used in headless mode, where the screen is never queried
+    public static final int HEADLESS_FRAME_HEIGHT = 1080;
+    public static final int HEADLESS_FRAME_WIDTH = 1920;
+
+    public static final int FRAME_HEIGHT = HEADLESS ? HEADLESS_FRAME_HEIGHT : GameWindow.HEIGHT; //Height of the Frame
+    public static final int FRAME_WIDTH = HEADLESS ? HEADLESS_FRAME_WIDTH : GameWindow.WIDTH; //Width of the Frame
 
 
     public static final int WORLD_HEIGHT = FRAME_HEIGHT * 2; //Height of the Frame
@@ -18,14 +21,35 @@ public class Constants {
     public static final int MID_WORLD_X = WORLD_WIDTH / 2; //middle point of the world (X value)
     public static final int MID_WORLD_Y = WORLD_HEIGHT / 2; //middle point of the world (Y value)
 
-    //sleep time between two frames
-    public static final int DELAY = 10;  //in milliseconds
-    public static final double DT = DELAY / 1000.0;  //in seconds
-    public static final Random RANDOM = new Random(); //random object used to generate random variables
+    //simulation steps per second, durations given in milliseconds are turned into steps by ticks
+    public static final int TICK_RATE = intProperty("asteroids.tickRate", 100, 1, 1000);
+    public static final long STEP_NANOS = Math.round(1e9 / TICK_RATE); //length of a step in nanoseconds
+    public static final double DT = 1.0 / TICK_RATE;  //length of a step in seconds
+    //sleep time between two frames of the clients
+    public static final int DELAY = Math.max(1, 1000 / TICK_RATE);  //in milliseconds
+    public static final int MAX_CATCH_UP_TICKS = 5; //maximum number of late simulation steps run at once
+
+    //draw the frames on a render thread into a BufferStrategy instead of repainting the View through Swing
+    public static final boolean ACTIVE_RENDERING = Boolean.getBoolean("asteroids.activeRendering");
+    public static final int TARGET_FPS = intProperty("asteroids.fps", 60, 1, 1000); //frame rate of the active rendering
+    public static final boolean SHOW_FRAME_STATS = Boolean.getBoolean("asteroids.frameStats"); //draw the frame time statistics
+    public static final Long SEED = Long.getLong("asteroids.seed"); //seed of the games, a random one for every game if not set
     public static final String SAVE_FILE = "save.bin"; //name of the save file
     public static final String SCORES_FILE = "scores.txt";
 
 
+    //use the old java.awt.geom.Area overlap check instead of the circle one (for comparison only)
+    public static final boolean LEGACY_OVERLAP = Boolean.getBoolean("asteroids.legacyOverlap");
+
+    //test bullets at their positions only instead of along the way they moved in the last step (for comparison only)
+    public static final boolean DISCRETE_BULLETS = Boolean.getBoolean("asteroids.discreteBullets");
+
+    //keep the object state in primitive arrays for the collision pass and the movement of ballistic objects
+    public static final boolean ENTITY_STORE = Boolean.getBoolean("asteroids.entityStore");
+
+    //update the independent objects (asteroids, bullets, enemies) of a step on a ForkJoinPool
+    public static final boolean PARALLEL_UPDATE = Boolean.getBoolean("asteroids.parallelUpdate");
+
     public static final int MAX_PLAYER_SPEED = 500; //maximum speed of the player
 
     public static final Difficulty DEFAULT_DIFFICULTY = new Difficulty(20, 10, 60); //default difficulty of the game
@@ -33,5 +57,41 @@ public class Constants {
     public static final String SERVER_IP = "167.99.82.164"; //server IP for multiplayer functionality
     public static final String REMOTE_SERVER_NAME = "AsteroidsGameServer"; //server IP for multiplayer functionality
     public static final int SERVER_PORT = 1099; //server PORT for multiplayer functionality
+    public static final int NIO_PORT = 1100; //server PORT of the java.nio transport
+
+    //multiplayer transport: "rmi" (clients poll the server) or "nio" (server pushes snapshots to the clients)
+    public static final String TRANSPORT = System.getProperty("asteroids.transport", "rmi");
+
+    /**
+     * @param millis duration in milliseconds
+     * @return number of simulation steps the duration lasts, rounded
+     */
+    public static int ticks(long millis) {
+        return (int) Math.round(millis * TICK_RATE / 1000.0);
+    }
+
+    /**
+     * Reads a whole number setting. A value which is not a number or is out of range is reported and the default used,
+     * so a wrong setting never stops the game from starting.
+     * @param name name of the system property
+     * @param def  default value
+     * @param min  smallest value accepted
+     * @param max  largest value accepted
+     * @return value of the setting
+     */
+    private static int intProperty(String name, int def, int min, int max) {
+        String value = System.getProperty(name);
+        if (value == null)
+            return def;
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed >= min && parsed <= max)
+                return parsed;
+        } catch (NumberFormatException e) {
+            //reported below
+        }
+        System.err.println("Ignoring " + name + "=" + value + ", expected " + min + ".." + max + ", using " + def);
+        return def;
+    }
 
 }
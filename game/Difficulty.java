@@ -6,6 +6,9 @@ import java.io.Serializable;
  * Difficulty class that determines the difficulty of the game - number of Asteroids and Enemies.
  */
 public class Difficulty implements Serializable {
+    //largest games a remote client may ask the server for
+    public static final int MAX_ASTEROIDS = 100, MAX_ENEMIES = 40, MAX_ROUND_TIME = 600;
+
     //number of asteroids and enemies in the game to be spawned
     private int numerOfAsteroids, numberOfEnemies, roundTime;
 
@@ -15,6 +18,15 @@ public class Difficulty implements Serializable {
         this.roundTime = roundTime;
     }
 
+    /**
+     * @return true if the numbers are within the limits a server accepts from its clients
+     */
+    public boolean isValid() {
+        return numerOfAsteroids >= 0 && numerOfAsteroids <= MAX_ASTEROIDS
+                && numberOfEnemies >= 0 && numberOfEnemies <= MAX_ENEMIES
+                && roundTime > 0 && roundTime <= MAX_ROUND_TIME;
+    }
+
     public int getNumerOfAsteroids() {
         return numerOfAsteroids;
     }
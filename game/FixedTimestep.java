@@ -0,0 +1,72 @@
+package game;
+
+/**
+ * Fixed timestep scheduler for the game loop. Real time passed between calls is collected in an accumulator and
+ * turned into a whole number of simulation steps of constant length, so the simulation speed does not depend
+ * on how long a single update takes. The number of steps run at once is capped so a saturated server does not
+ * fall further and further behind; time over the cap is dropped and reported.
+ */
+public class FixedTimestep {
+    private final long stepNanos; //length of one simulation step
+    private final int maxCatchUp; //maximum number of steps run in a single advance call
+    private long lastTime; //time of the last advance (or reset) call
+    private long accumulator; //real time not yet simulated
+    private long droppedSteps; //number of steps skipped because of the catch-up cap
+    private long lagNanos; //time the simulation was behind real time after the last advance call
+
+    public FixedTimestep(long stepNanos, int maxCatchUp) {
+        this.stepNanos = stepNanos;
+        this.maxCatchUp = maxCatchUp;
+    }
+
+    /**
+     * Starts measuring time from now, forgetting any time collected so far (e.g. after a pause).
+     * @param now current time in nanoseconds
+     */
+    public void reset(long now) {
+        lastTime = now;
+        accumulator = 0;
+        lagNanos = 0;
+    }
+
+    /**
+     * Adds the time passed since the last call to the accumulator.
+     * @param now current time in nanoseconds
+     * @return number of simulation steps to run now
+     */
+    public int advance(long now) {
+        accumulator += now - lastTime;
+        lastTime = now;
+
+        int steps = (int) Math.min(accumulator / stepNanos, maxCatchUp);
+        accumulator -= steps * stepNanos;
+        lagNanos = accumulator;
+
+        if (accumulator >= stepNanos) { //more than the cap is due - drop it so we do not spiral behind
+            droppedSteps += accumulator / stepNanos;
+            accumulator %= stepNanos;
+        }
+        return steps;
+    }
+
+    /**
+     * @return time in nanoseconds until the next step is due
+     */
+    public long nanosUntilNextStep() {
+        return Math.max(0, stepNanos - accumulator);
+    }
+
+    /**
+     * @return how far behind real time the simulation was after the last advance call, in milliseconds
+     */
+    public double getLagMillis() {
+        return lagNanos / 1_000_000.0;
+    }
+
+    /**
+     * @return total number of steps dropped because of the catch-up cap
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
@@ -0,0 +1,98 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Frame time statistics of the renderer. Keeps the times of the last frames in a ring buffer so the average,
+ * percentiles and the worst frame describe the recent past rather than the whole run.
+ * Frames are recorded by the render thread and the statistics may be read by any thread.
+ */
+public class FrameStats {
+    private final long[] frameNanos; //times of the last frames, in nanoseconds
+    private int next; //index the next frame time is written to
+    private int size; //number of frame times in the buffer
+    private long frames; //number of frames recorded since the start
+    private long droppedFrames; //number of frames given up because the renderer was too late
+
+    /**
+     * @param window number of last frames the statistics are computed over
+     */
+    public FrameStats(int window) {
+        frameNanos = new long[window];
+    }
+
+    /**
+     * Records a presented frame.
+     * @param nanos time since the previous frame was presented
+     */
+    public synchronized void record(long nanos) {
+        frameNanos[next] = nanos;
+        next = (next + 1) % frameNanos.length;
+        size = Math.min(size + 1, frameNanos.length);
+        frames++;
+    }
+
+    /**
+     * Records frames given up to catch up with the target frame rate.
+     */
+    public synchronized void drop(long count) {
+        droppedFrames += count;
+    }
+
+    public synchronized long getFrames() {
+        return frames;
+    }
+
+    public synchronized long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * @return average frame time of the last frames, in milliseconds
+     */
+    public synchronized double getAverageMillis() {
+        if (size == 0)
+            return 0;
+        long sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += frameNanos[i];
+        return sum / (size * 1e6);
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return frame time of the last frames at the given percentile, in milliseconds
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (size == 0)
+            return 0;
+        long[] sorted = Arrays.copyOf(frameNanos, size);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return sorted[Math.max(0, Math.min(size - 1, index))] / 1e6;
+    }
+
+    /**
+     * @return longest frame time of the last frames, in milliseconds
+     */
+    public synchronized double getMaxMillis() {
+        long max = 0;
+        for (int i = 0; i < size; i++)
+            max = Math.max(max, frameNanos[i]);
+        return max / 1e6;
+    }
+
+    /**
+     * @return frames per second over the last frames
+     */
+    public double getFps() {
+        double average = getAverageMillis();
+        return average > 0 ? 1000 / average : 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("fps=%.1f avg=%.2fms p99=%.2fms max=%.2fms dropped=%d",
+                getFps(), getAverageMillis(), getPercentileMillis(99), getMaxMillis(), getDroppedFrames());
+    }
+}
@@ -3,12 +3,17 @@ package game;
 import game.controller.Action;
 import game.controller.Controller;
 import game.model.*;
+import utilities.SeededRandom;
 import utilities.SoundManager;
 import utilities.Vector2D;
 
 import java.io.*;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
 
 /**
  * The game class handles the game round. It keeps track of all the players, game objects and updates them.
@@ -17,24 +22,47 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class Game implements Serializable, Runnable {
     private ScoreTracker scoreTracker; //tracks player scores
-    public Set<GameObject> objects; //holds all alive game objects
-    public Set<Particle> particles; //holds particles from a game object explosion
+    public EntityContainer objects; //holds all alive game objects
+    public ParticleSystem particles; //holds particles from a game object explosion
     public transient int numberOfPlayers = 0;
     public Player[] players; //array with players present in the game
 
     public transient Object pause; //serves as a lock for pause functionality
     private transient boolean paused; //indicates whether the game is paused
-    private transient boolean isOn; //indicates whether game has not ended
+    private transient volatile boolean isOn; //indicates whether game has not ended
 
     private transient final Difficulty difficulty; //holds current difficulty settings
+    private long tick; //number of simulation steps run so far
+    private TimerWheel timers; //delayed state changes driven by the tick, saved with the game
+    private int lastEntityId; //last id given to a game object
+    private final SeededRandom random; //random numbers of the simulation, saved with the game
+    private transient FixedTimestep timestep; //turns real time into fixed simulation steps
+    private transient SpatialHash broadPhase; //broad phase of the collision pass
+    private transient List<GameObject> candidates; //collision candidates of the currently updated object
+    private transient EntityStore entityStore; //primitive arrays with the object state (if enabled)
+    private transient ParallelUpdate parallelUpdate; //parallel update of the independent objects (if enabled)
+    private transient List<GameObject> dependent; //objects updated one by one after the independent ones
+    private transient Runnable tickListener; //called after every simulation step (e.g. to broadcast the state)
+    private transient volatile boolean rendered; //the game is drawn, so render states are published
+    private transient volatile RenderState renderState; //state of the last step for the renderer, swapped whole
+    private transient Queue<Request<?>> requests = new ConcurrentLinkedQueue<>(); //changes asked for by other threads
 
     public Game(ScoreTracker scoreTracker, Difficulty difficulty) {
+        this(scoreTracker, difficulty, Constants.SEED != null ? Constants.SEED : SeededRandom.randomSeed());
+    }
+
+    /**
+     * @param seed seed of the random numbers, games with the same seed, difficulty and inputs play the same
+     */
+    public Game(ScoreTracker scoreTracker, Difficulty difficulty, long seed) {
         this.scoreTracker = scoreTracker;
         this.difficulty = difficulty;
         players = new Player[Constants.MAX_PLAYER_NUMBER];
+        timers = new TimerWheel();
+        random = new SeededRandom(seed);
 
-        particles = new HashSet<>();
-        objects = new ConcurrentHashMap<>().newKeySet(); //thread-safe implementation of HashSet
+        particles = new ParticleSystem(random.split());
+        objects = new EntityContainer();
         pause = new Object();
 
         isOn = true;
@@ -54,6 +82,45 @@ public class Game implements Serializable, Runnable {
         return players;
     }
 
+    /**
+     * Replaces the score tracker, used by copies of remote games.
+     * @param scoreTracker new score tracker
+     */
+    public void setScoreTracker(ScoreTracker scoreTracker) {
+        this.scoreTracker = scoreTracker;
+    }
+
+    /**
+     * @return new id for a game object, unique in this game
+     */
+    public int newEntityId() {
+        return ++lastEntityId;
+    }
+
+    /**
+     * Gives the object an id if it has none yet. Called before an object is added to the game.
+     * @return the object
+     */
+    private <T extends GameObject> T register(T object) {
+        if (object.id == 0)
+            object.id = newEntityId();
+        return object;
+    }
+
+    /**
+     * @return random number stream of this game, to be used by the simulation thread only
+     */
+    public SeededRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * @return timer wheel used for delayed state changes in this game
+     */
+    public TimerWheel getTimers() {
+        return timers;
+    }
+
     /**
      * @return score tracker keeping track of all player scores
      */
@@ -68,37 +135,97 @@ public class Game implements Serializable, Runnable {
         scoreTracker.setStartTime();
 
         for (int i = 0; i < difficulty.getNumerOfAsteroids(); i++) {
-            Asteroid a = Asteroid.makeRandomAsteroid();
-            objects.add(a);
+            Asteroid a = Asteroid.makeRandomAsteroid(random);
+            objects.spawn(register(a));
         }
 
         List<BlackHole> otherHoles = new ArrayList<>();
         otherHoles.add(new BlackHole(new Vector2D(2000, 600), 100, otherHoles));
         otherHoles.add(new BlackHole(new Vector2D(400, 600), 100, otherHoles));
         otherHoles.add(new BlackHole(new Vector2D(900, 1100), 100, otherHoles));
-        objects.addAll(otherHoles);
+        for (BlackHole hole : otherHoles)
+            objects.spawn(register(hole));
+        objects.commit(); //the game is not running yet
+    }
+
+    /**
+     * Asks for a change of the game by another thread (e.g. a player joining over the network). The change is run
+     * by the thread running the game at the start of the next step, so it never races with the simulation.
+     * @param request change to be made, its result completes the returned future
+     * @return future completed after the change has been made, cancelled if the game stops first
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> request) {
+        Request<T> r = new Request<>(request);
+        requests.add(r);
+        if (!isOn)
+            cancelRequests();
+        return r.result;
+    }
+
+    /**
+     * Runs the changes asked for since the last step.
+     */
+    private void runRequests() {
+        Request<?> r;
+        while ((r = requests.poll()) != null)
+            r.run();
+    }
+
+    /**
+     * Cancels the changes not run yet, the game will not make any more steps.
+     */
+    private void cancelRequests() {
+        Request<?> r;
+        while ((r = requests.poll()) != null)
+            r.result.completeExceptionally(new CancellationException("The game has stopped"));
     }
 
     /**
-     * Adds a new player to this game.
+     * Change of the game asked for by another thread and the future of its result.
+     */
+    private static class Request<T> {
+        final Supplier<T> change;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        Request(Supplier<T> change) {
+            this.change = change;
+        }
+
+        void run() {
+            if (result.isDone()) //cancelled by the thread which asked for it
+                return;
+            try {
+                result.complete(change.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Adds a new player to this game. Called before the game runs or by the thread running it (see submit),
+     * the objects of the player are added at the end of the step.
      * @param playerName nickname of the player to be added
      * @return Player object representing the new player added to the game
      */
-    public synchronized Player newPlayer(String playerName) {
-        if (numberOfPlayers >= Constants.MAX_PLAYER_NUMBER)
+    public Player newPlayer(String playerName) {
+        int free = 0; //first free place, places of the players who have left are taken again
+        while (free < players.length && players[free] != null)
+            free++;
+        if (free == players.length)
             return null;
-        final int playerId = numberOfPlayers;
+        final int playerId = free;
         numberOfPlayers++;
 
         Controller ctrl = () -> players[playerId].getAction();
 
         PlayerShip playerShip = new PlayerShip(ctrl, playerName, this);
-        objects.add(playerShip);
+        objects.spawn(register(playerShip));
 
         int numberOfEnemies = difficulty.getNumberOfEnemies();
         for (int i = 0; i < numberOfEnemies; i++) {
-            EnemyShip es = EnemyShip.makeRandomEnemyShip(playerShip);
-            objects.add(es);
+            EnemyShip es = EnemyShip.makeRandomEnemyShip(playerShip, random);
+            objects.spawn(register(es));
         }
         scoreTracker.incEnemiesLeft(numberOfEnemies);
 
@@ -107,6 +234,26 @@ public class Game implements Serializable, Runnable {
         return players[playerId];
     }
 
+    /**
+     * Removes a player who has left the game: his ship and pods are removed at once and his place is freed.
+     * Called by the thread running the game (see submit), between the steps.
+     * @param playerId id of the player
+     */
+    public void removePlayer(int playerId) {
+        Player player = players[playerId];
+        if (player == null)
+            return;
+        PlayerShip ship = player.getShip();
+        for (int i = objects.size(EntityType.HELPER_POD) - 1; i >= 0; i--) { //backwards, a removal moves the last pod
+            HelperPod pod = (HelperPod) objects.get(EntityType.HELPER_POD, i);
+            if (pod.belongsTo(ship))
+                objects.remove(pod);
+        }
+        objects.remove(ship);
+        players[playerId] = null;
+        numberOfPlayers--;
+    }
+
     /**
      * Makes an action for a specified player in the game.
      * @param playerId id of the player
@@ -114,25 +261,30 @@ public class Game implements Serializable, Runnable {
      * @return updated Game instance
      */
     public synchronized Game doAction(int playerId, Action action) {
-        players[playerId].setAction(action);
+        Player player = players[playerId];
+        if (player != null) //null once the player has left
+            player.setAction(action);
         return this;
     }
 
     /**
-     * Main game loop to be executed in a thread.
+     * Main game loop to be executed in a thread. Runs the simulation in fixed steps of Constants.DT,
+     * sleeping until the next step is due.
      */
     @Override
     public void run() {
-        isOn = true;
+        start(System.nanoTime());
         while (isOn) {
             synchronized (pause) {
-                update();
+                advance(System.nanoTime());
                 try {
-                    Thread.sleep(Constants.DELAY);
+                    long wait = timestep.nanosUntilNextStep();
+                    Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
                     if (paused) {
                         scoreTracker.pausedTime();
                         pause.wait();
                         scoreTracker.restoreStartTime();
+                        timestep.reset(System.nanoTime()); //do not catch up with the time spent paused
                     }
                 } catch (InterruptedException e) {
                     e.printStackTrace();
@@ -141,11 +293,86 @@ public class Game implements Serializable, Runnable {
         }
     }
 
+    /**
+     * Starts the clock of the game. Called by run, or by a scheduler which calls advance itself.
+     * @param now current time in nanoseconds
+     */
+    public void start(long now) {
+        isOn = true;
+        timestep().reset(now);
+    }
+
+    /**
+     * @return true until the game is stopped or its round has ended
+     */
+    public boolean isOn() {
+        return isOn;
+    }
+
+    /**
+     * Runs all simulation steps due at the given time (at most Constants.MAX_CATCH_UP_TICKS of them).
+     * @param now current time in nanoseconds
+     * @return number of steps run
+     */
+    public int advance(long now) {
+        int steps = timestep().advance(now);
+        for (int i = 0; i < steps && isOn; i++)
+            update();
+        return steps;
+    }
+
+    /**
+     * Runs a single simulation step regardless of the real time (e.g. for benchmarks driving the game themselves).
+     */
+    public void step() {
+        update();
+    }
+
+    /**
+     * @return fixed timestep scheduler of this game, created lazily as it is not serialised with the game
+     */
+    private FixedTimestep timestep() {
+        if (timestep == null)
+            timestep = new FixedTimestep(Constants.STEP_NANOS, Constants.MAX_CATCH_UP_TICKS);
+        return timestep;
+    }
+
+    /**
+     * Sets the listener called on the game thread after every simulation step.
+     * @param tickListener listener to be called, null to remove it
+     */
+    public void setTickListener(Runnable tickListener) {
+        this.tickListener = tickListener;
+    }
+
+    /**
+     * @return number of simulation steps run so far
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return how far behind real time the simulation was after the last step, in milliseconds
+     */
+    public double getTickLagMillis() {
+        return timestep().getLagMillis();
+    }
+
+    /**
+     * @return number of steps dropped because the game could not catch up with real time
+     */
+    public long getDroppedTicks() {
+        return timestep().getDroppedSteps();
+    }
+
     /**
      * Updates all game objects.
      */
     private void update() {
-        Set<GameObject> alive = new HashSet<>();
+        runRequests();
+        tick++;
+        timers.advance();
 
         scoreTracker.timer();
         if (scoreTracker.getTimeLeft() <= 0) { //if time left 0 - stops the game
@@ -153,41 +380,50 @@ public class Game implements Serializable, Runnable {
                 if (p != null)
                     p.setDead(true);
             isOn = false;
+            cancelRequests();
         }
 
-        for (GameObject object : objects) {
-            for (GameObject o2 : objects) { //for every pair of GameObjects checks Collision Handling
-                o2.collisionHandling(object);
+        //phases: collisions, updates of the objects, then spawns and deaths of the objects queued and applied at the end
+        if (Constants.ENTITY_STORE)
+            collideAndMoveWithStore();
+        else
+            collide();
+        updateObjects();
 
-                //AsteroidInteract:
-                if (o2 instanceof Asteroid && object instanceof Asteroid && o2 != object && o2.overlap(object)) {
-                    ((Asteroid) o2).asteroidInteract((Asteroid) object);
-                }
-            }
-
-            object.update();
-            if (!object.dead) alive.add(object); //if not dead - add to list of alive
-            else if (!(object instanceof Bullet)) explosion(object); //if dead - make an explostion
-
-            if (object instanceof Bullet) { //handle time to live of Bullets
-                ((Bullet) object).addTime();
-            } else if (object instanceof Asteroid) { //handle Asteroids objects - scores and splitting
-                Asteroid a = (Asteroid) object;
-                if (a.dead) scoreTracker.incScore(ScoreTracker.ScoreType.ASTEROID, a.getHitBy());
-                Set<Asteroid> s = a.getSpawnedAsteroids();
-                if (s != null) {
-                    alive.addAll(s);
-                }
+        for (GameObject object : objects) {
+            EntityType type = object.type();
+            if (object.dead) { //if dead - remove it and make an explosion
+                objects.despawn(object);
+                if (type != EntityType.BULLET)
+                    explosion(object);
             }
 
-            if (object instanceof Ship) {
-                Ship s = (Ship) object;
-                Bullet b = s.getBullet();
-                if (b != null)
-                    alive.add(b);
-
-                if (s instanceof EnemyShip && s.dead) //reduce enemy number if is dead
-                    scoreTracker.decEnemiesLeft();
+            switch (type) {
+                case BULLET: //handle time to live of Bullets
+                    ((Bullet) object).addTime();
+                    break;
+                case ASTEROID: //handle Asteroids objects - scores and splitting
+                    Asteroid a = (Asteroid) object;
+                    if (a.dead) scoreTracker.incScore(ScoreTracker.ScoreType.ASTEROID, a.getHitBy());
+                    Set<Asteroid> spawnedAsteroids = a.getSpawnedAsteroids();
+                    if (spawnedAsteroids != null) {
+                        for (Asteroid spawned : spawnedAsteroids)
+                            objects.spawn(register(spawned));
+                    }
+                    break;
+                case ENEMY_SHIP:
+                case PLAYER_SHIP:
+                case HELPER_POD:
+                    Ship s = (Ship) object;
+                    Bullet b = s.getBullet();
+                    if (b != null)
+                        objects.spawn(register(b));
+
+                    if (type == EntityType.ENEMY_SHIP && s.dead) //reduce enemy number if is dead
+                        scoreTracker.decEnemiesLeft();
+                    break;
+                default:
+                    break;
             }
         }
 
@@ -197,7 +433,7 @@ public class Game implements Serializable, Runnable {
                 PlayerShip playerShip = player.getShip();
                 HelperPod pod = playerShip.getPod();
                 if (pod != null)
-                    alive.add(pod);
+                    objects.spawn(register(pod));
 
                 if (playerShip.isHit()) { //if player is hit - decrease life and make sound
                     player.decLives();
@@ -211,15 +447,15 @@ public class Game implements Serializable, Runnable {
                 if (playerShip.dead) { //if player is dead - set respawning
                     if (!respawning) {
                         playerShip.setRespawning(true);
-                        playerShip.setInvincible(true, 9000);
+                        playerShip.setInvincible(true, 9000, timers);
                     } else {
-                        if (200 < playerShip.respawnTime) {
+                        if (Constants.ticks(PlayerShip.RESPAWN_TIME) < playerShip.respawnTime) {
                             //recreates the ship
                             playerShip.setRespawning(false);
                             playerShip.dead = false;
                             playerShip.respawnTime = 0;
                             player.resLives();
-                            alive.add(playerShip);
+                            objects.spawn(playerShip);
                         }
                     }
                 }
@@ -227,21 +463,120 @@ public class Game implements Serializable, Runnable {
                     playerShip.respawnTime++;
 
             }
+        }
 
-            synchronized (Game.class) { //handle particles
-                Iterator<Particle> it = particles.iterator();
-                while (it.hasNext()) {
-                    Particle particle = it.next();
-                    if (particle.getTtl() > 0)
-                        particle.update();
-                    else
-                        it.remove();
+        particles.update(); //handle particles
+        objects.commit();
+        publishRenderState();
+        if (tickListener != null)
+            tickListener.run();
+    }
+
+    /**
+     * Makes the game publish a RenderState after every step, called when the game starts being drawn.
+     */
+    public void setRendered(boolean rendered) {
+        this.rendered = rendered;
+        if (!rendered)
+            renderState = null;
+    }
+
+    /**
+     * Publishes the state of the game for the renderer, if the game is drawn. Called by the only thread
+     * changing the game after every step (or after a snapshot is applied to a copy of the game); any number
+     * of threads may read the published state without locking.
+     */
+    public void publishRenderState() {
+        if (rendered)
+            renderState = new RenderState(this, System.nanoTime(), renderState);
+    }
+
+    /**
+     * @return state of the game at the last step, null if none has been published yet
+     */
+    public RenderState getRenderState() {
+        return renderState;
+    }
+
+    /**
+     * Collision pass. Every object is tested against the objects from the neighbouring cells of the grid only,
+     * skipping the ones whose type cannot interact with its type (see EntityType.interacts).
+     */
+    private void collide() {
+        if (broadPhase == null) { //created lazily as it is not serialised with the game
+            broadPhase = new SpatialHash(Constants.WORLD_WIDTH, Constants.WORLD_HEIGHT);
+            candidates = new ArrayList<>();
+        }
+        broadPhase.rebuild(objects);
+
+        for (GameObject object : objects) {
+            broadPhase.candidates(object, candidates);
+            for (GameObject o2 : candidates) {
+                o2.collisionHandling(object, this);
+
+                //AsteroidInteract:
+                if (o2.type() == EntityType.ASTEROID && object.type() == EntityType.ASTEROID && o2.overlap(object)) {
+                    ((Asteroid) o2).asteroidInteract((Asteroid) object);
                 }
             }
+        }
+    }
+
+    /**
+     * Updates the objects. Independent objects (see GameObject.updatesIndependently) are updated first, on a
+     * ForkJoinPool if PARALLEL_UPDATE is on, then the other ones (player ships, pods) one by one.
+     * Both modes update in the same order, so they give the same result.
+     * Ballistic objects have already been moved if the EntityStore is used.
+     */
+    private void updateObjects() {
+        if (dependent == null) { //created lazily as they are not serialised with the game
+            dependent = new ArrayList<>();
+            if (Constants.PARALLEL_UPDATE)
+                parallelUpdate = new ParallelUpdate(ForkJoinPool.commonPool(), Constants.WORLD_WIDTH);
+        }
 
-            objects.clear();
-            objects.addAll(alive);
+        for (GameObject object : objects) {
+            if (Constants.ENTITY_STORE && object.isBallistic())
+                continue;
+            if (!object.updatesIndependently())
+                dependent.add(object);
+            else if (Constants.PARALLEL_UPDATE)
+                parallelUpdate.add(object);
+            else
+                object.update();
+        }
+        if (Constants.PARALLEL_UPDATE)
+            parallelUpdate.run();
+
+        for (GameObject object : dependent)
+            object.update();
+        dependent.clear();
+    }
+
+    /**
+     * Collision pass and movement of ballistic objects done on the EntityStore arrays.
+     * All overlapping pairs are found in one sweep and handled in both directions, then the ballistic objects
+     * are moved in a second sweep. Objects moved by a collision (teleported, repelled) are reloaded before moving.
+     */
+    private void collideAndMoveWithStore() {
+        if (entityStore == null) //created lazily as it is not serialised with the game
+            entityStore = new EntityStore(Constants.WORLD_WIDTH, Constants.WORLD_HEIGHT);
+        entityStore.sync(objects);
+
+        int pairCount = entityStore.findPairs();
+        int[] pairs = entityStore.getPairs();
+        for (int i = 0; i < pairCount; i++) {
+            GameObject a = entityStore.get(pairs[2 * i]);
+            GameObject b = entityStore.get(pairs[2 * i + 1]);
+            b.collisionHandling(a, this);
+            a.collisionHandling(b, this);
+            if (a.type() == EntityType.ASTEROID && b.type() == EntityType.ASTEROID && a.overlap(b))
+                ((Asteroid) a).asteroidInteract((Asteroid) b);
+            entityStore.load(a);
+            entityStore.load(b);
         }
+
+        entityStore.integrate(Constants.DT);
     }
 
     /**
@@ -249,13 +584,8 @@ public class Game implements Serializable, Runnable {
      * @param object GameObject to be exploded
      */
     private void explosion(GameObject object) {
-        synchronized (Game.class) {
-            for (int i = 0; i < 100; i++) {
-                Vector2D position = object.getPosition();
-                String type = object.getClass().getName();
-                particles.add(new Particle(position, new Vector2D(1, 1), type));
-            }
-        }
+        Vector2D position = object.getPosition();
+        particles.emit(position.x, position.y, ParticleSystem.colourOf(object), 100);
     }
 
     /**
@@ -282,6 +612,7 @@ public class Game implements Serializable, Runnable {
      */
     public void stop() {
         isOn = false;
+        cancelRequests();
     }
 
     /**
@@ -290,13 +621,25 @@ public class Game implements Serializable, Runnable {
     public void save() {
         try {
             scoreTracker.pausedTime();
-            ObjectOutputStream out =
-                    new ObjectOutputStream(new FileOutputStream(Constants.SAVE_FILE));
-            out.writeObject(this);
-            out.close();
+            save(new FileOutputStream(Constants.SAVE_FILE));
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        requests = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Serialises this game to the stream and closes it.
+     * @param stream stream to write the game to
+     */
+    public void save(OutputStream stream) throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(stream);
+        out.writeObject(this);
+        out.close();
+    }
+
 }
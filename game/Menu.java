@@ -129,6 +129,7 @@ public class Menu extends JDialog {
             case MULTIPLAYER_LOBBY:
                 buttons[0].addActionListener(e -> {
                     action.pause = false;
+                    action.resume = true; //joins a room if the player is not in one
                     setVisible(false);
                     setElements(Configuration.MULTIPLAYER_PAUSE);
                 });
@@ -0,0 +1,107 @@
+package game;
+
+import game.model.EntityType;
+import utilities.ImageManager;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Minimap showing the whole world. The background is scaled to the size of the minimap once; the objects are
+ * shown as blips of a coarse occupancy grid, one pixel per cell, which is refreshed every few frames and only
+ * where it has changed. Drawing the minimap is then two plain blits however many objects there are.
+ */
+public class Minimap {
+    public static final int CELL_SIZE = 64; //width and height of a cell of the grid in the world
+    public static final int REFRESH_FRAMES = 5; //the grid is refreshed every this many frames
+
+    //kinds of the blips, a cell shows the highest kind of the objects in it
+    private static final int EMPTY = 0, ASTEROID = 1, BLACK_HOLE = 2, ENEMY = 3, PLAYER = 4;
+    private static final int[] COLOURS = {0x00000000, 0xFFA0A0A0, 0xFFB040FF, 0xFFFF3030, 0xFF30A0FF}; //ARGB by kind
+
+    private final int width, height; //size of the minimap on the screen
+    private final Image background; //background scaled to the size of the minimap
+    private final int columns, rows; //size of the grid
+    private final byte[] cells; //kind of the blip in every cell
+    private final byte[] shown; //kind of the blip in every cell of the raster
+    private final BufferedImage blips; //raster of the grid, one pixel per cell
+    private int frames; //frames left until the next refresh
+
+    /**
+     * @param image  background image
+     * @param width  width of the minimap on the screen
+     * @param height height of the minimap on the screen
+     */
+    public Minimap(Image image, int width, int height) {
+        this.width = width;
+        this.height = height;
+        BufferedImage scaled = ImageManager.createCompatibleImage(width, height, Transparency.OPAQUE);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(image, 0, 0, width, height, null);
+        g.dispose();
+        background = scaled;
+
+        columns = (Constants.WORLD_WIDTH + CELL_SIZE - 1) / CELL_SIZE;
+        rows = (Constants.WORLD_HEIGHT + CELL_SIZE - 1) / CELL_SIZE;
+        cells = new byte[columns * rows];
+        shown = new byte[columns * rows];
+        blips = new BufferedImage(columns, rows, BufferedImage.TYPE_INT_ARGB); //starts transparent
+    }
+
+    /**
+     * Draws the minimap, refreshing the blips if they are due.
+     * @param g       graphics to draw with
+     * @param state   state of the game whose objects are shown
+     * @param centreX x of the centre of the minimap
+     * @param centreY y of the centre of the minimap
+     */
+    public void draw(Graphics2D g, RenderState state, int centreX, int centreY) {
+        if (frames-- <= 0) {
+            refresh(state);
+            frames = REFRESH_FRAMES - 1;
+        }
+        int x = centreX - width / 2, y = centreY - height / 2;
+        g.drawImage(background, x, y, null);
+        g.drawImage(blips, x, y, width, height, null);
+    }
+
+    /**
+     * Rebuilds the grid from the objects of the game and writes the cells which have changed into the raster.
+     */
+    private void refresh(RenderState state) {
+        Arrays.fill(cells, (byte) EMPTY);
+        for (int i = 0; i < state.size(); i++) {
+            int kind = kindOf(state.getType(i));
+            if (kind == EMPTY)
+                continue;
+            int column = Math.floorMod((int) state.getX(i, 1) / CELL_SIZE, columns);
+            int row = Math.floorMod((int) state.getY(i, 1) / CELL_SIZE, rows);
+            int cell = row * columns + column;
+            if (kind > cells[cell])
+                cells[cell] = (byte) kind;
+        }
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (cells[cell] != shown[cell]) {
+                shown[cell] = cells[cell];
+                blips.setRGB(cell % columns, cell / columns, COLOURS[cells[cell]]);
+            }
+        }
+    }
+
+    private static int kindOf(EntityType type) {
+        switch (type) {
+            case PLAYER_SHIP:
+                return PLAYER;
+            case ENEMY_SHIP:
+                return ENEMY;
+            case BLACK_HOLE:
+                return BLACK_HOLE;
+            case ASTEROID:
+                return ASTEROID;
+            default:
+                return EMPTY; //bullets, pods
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package game;
+
+import game.model.GameObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Parallel phase of the game update. Objects whose update is independent (GameObject.updatesIndependently)
+ * are split into vertical strips of the world and every strip is updated by a task on a ForkJoinPool.
+ * Such updates only change the state of their own object, so the result does not depend on the order
+ * the strips are run in and is the same as when they are updated one by one.
+ */
+public class ParallelUpdate {
+    public static final int MIN_PARALLEL = 256; //fewer objects than this are updated on the calling thread
+
+    private final ForkJoinPool pool; //pool running the tasks
+    private final double stripWidth; //width of a strip of the world
+    private final List<List<GameObject>> strips = new ArrayList<>(); //objects to be updated, by strip
+    private int size; //number of objects added since the last run
+
+    /**
+     * @param pool       pool running the tasks
+     * @param worldWidth width of the world
+     */
+    public ParallelUpdate(ForkJoinPool pool, double worldWidth) {
+        this.pool = pool;
+        int count = Math.max(1, pool.getParallelism() * 4); //more strips than threads so they can be balanced
+        stripWidth = worldWidth / count;
+        for (int i = 0; i < count; i++)
+            strips.add(new ArrayList<>());
+    }
+
+    /**
+     * Adds an object to be updated by the next run.
+     * @param object object whose update is independent
+     */
+    public void add(GameObject object) {
+        int strip = (int) (object.centreX() / stripWidth);
+        strips.get(Math.floorMod(strip, strips.size())).add(object); //objects just outside the world wrap around
+        size++;
+    }
+
+    /**
+     * Updates all objects added since the last run and forgets them.
+     */
+    public void run() {
+        if (size < MIN_PARALLEL) {
+            for (List<GameObject> strip : strips)
+                for (GameObject o : strip)
+                    o.update();
+        } else {
+            pool.invoke(new StripTask(0, strips.size()));
+        }
+        for (List<GameObject> strip : strips)
+            strip.clear();
+        size = 0;
+    }
+
+    /**
+     * Updates the objects of a range of strips, splitting the range in halves until a single strip is left.
+     */
+    private class StripTask extends RecursiveAction {
+        private final int from, to; //range of strips, to is exclusive
+
+        StripTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new StripTask(from, mid), new StripTask(mid, to));
+                return;
+            }
+            for (GameObject o : strips.get(from))
+                o.update();
+        }
+    }
+}
@@ -59,6 +59,10 @@ public class Player implements Serializable {
         return lives;
     }
 
+    public void setLives(int lives) {
+        this.lives = lives;
+    }
+
     public void decLives() {
         lives--;
     }
@@ -0,0 +1,272 @@
+package game;
+
+import game.model.*;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * State of the game drawn by the renderer: positions of the objects at two consecutive simulation steps,
+ * the particles and the HUD of every player. Made by the thread running the simulation after a step and
+ * published by swapping a single reference, so the renderer never blocks the simulation nor sees a step
+ * half done. Everything an object is drawn from is copied, the objects themselves are not kept, so nothing is
+ * changed after the state has been made, and the renderer can draw the objects anywhere between the two steps
+ * to be smooth at any frame rate, however long a step is.
+ */
+public class RenderState {
+    public static final double MAX_STEP = 300; //objects moved further in a step (teleported) are not interpolated
+    private static final byte THRUSTING = 1, SHIELDING = 2; //flags of a ship
+
+    private final long tick; //step the state was made after
+    private final long time; //time the state was made at, in nanoseconds
+    private final long stepNanos; //time since the previous state, 0 if there is none
+    private final int[] ids; //ids of the objects, in order
+    private final EntityType[] types; //types of the objects
+    private final double[] x, y; //positions of the objects at the step
+    private final double[] centreX, centreY; //centres of the objects relative to their positions
+    private final double[] radii; //radii of the objects
+    private final double[] angles; //angles of the direction of ships and of the velocity of asteroids
+    private final int[] colours; //colours of ships as 0xRRGGBB
+    private final byte[] flags; //THRUSTING and SHIELDING of ships
+    private final String[] labels; //names of players by their ships and sources of bullets, null for others
+    private final double[] previousX, previousY; //positions of the objects at the previous step, NaN if not there
+    private final ParticleSystem.State particles; //particles of the step
+    private final Hud[] huds; //HUD of every player by id, null if there is no such player
+
+    /**
+     * Copies the state of the game. Called by the thread running the simulation.
+     * @param game     game the state is made of
+     * @param time     current time in nanoseconds
+     * @param previous state of the previous step, null if there is none
+     */
+    public RenderState(Game game, long time, RenderState previous) {
+        this.tick = game.getTick();
+        this.time = time;
+        this.stepNanos = previous == null ? 0 : time - previous.time;
+        GameObject[] objects = game.objects.toArray(new GameObject[0]);
+        Arrays.sort(objects, Comparator.comparingInt(o -> o.id)); //almost sorted already, new objects are appended
+
+        int n = objects.length;
+        ids = new int[n];
+        types = new EntityType[n];
+        x = new double[n];
+        y = new double[n];
+        previousX = new double[n];
+        previousY = new double[n];
+        centreX = new double[n];
+        centreY = new double[n];
+        radii = new double[n];
+        angles = new double[n];
+        colours = new int[n];
+        flags = new byte[n];
+        labels = new String[n];
+        for (int i = 0, j = 0; i < n; i++) {
+            GameObject o = objects[i];
+            ids[i] = o.id;
+            types[i] = o.type();
+            x[i] = o.position.x;
+            y[i] = o.position.y;
+            centreX[i] = o.centreX() - o.position.x;
+            centreY[i] = o.centreY() - o.position.y;
+            radii[i] = o.radius;
+            copyAppearance(i, o);
+
+            //both states are sorted by id - find the object in the previous one by merging
+            while (previous != null && j < previous.ids.length && previous.ids[j] < o.id)
+                j++;
+            if (previous != null && j < previous.ids.length && previous.ids[j] == o.id
+                    && previous.types[j] == types[i]) {
+                previousX[i] = previous.x[j];
+                previousY[i] = previous.y[j];
+            } else {
+                previousX[i] = Double.NaN;
+                previousY[i] = Double.NaN;
+            }
+        }
+
+        particles = game.particles.copy();
+        Player[] players = game.getPlayers();
+        huds = new Hud[players.length];
+        for (int i = 0; i < players.length; i++)
+            if (players[i] != null)
+                huds[i] = new Hud(players[i], game.getScoreTracker());
+    }
+
+    /**
+     * Copies what the object is drawn with besides its position and size.
+     */
+    private void copyAppearance(int i, GameObject o) {
+        switch (types[i]) {
+            case ASTEROID:
+                angles[i] = o.velocity.angle();
+                break;
+            case BULLET:
+                labels[i] = ((Bullet) o).getSource();
+                break;
+            case ENEMY_SHIP:
+            case PLAYER_SHIP:
+            case HELPER_POD:
+                Ship ship = (Ship) o;
+                angles[i] = ship.direction.angle();
+                colours[i] = ship.getColour();
+                flags[i] = (byte) ((ship.isThrusting() ? THRUSTING : 0) | (ship.isShielding() ? SHIELDING : 0));
+                if (ship instanceof PlayerShip)
+                    labels[i] = ((PlayerShip) ship).getName();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @param now current time in nanoseconds
+     * @return fraction of the way from the previous step to this one the frame drawn now shows, between 0 and 1
+     */
+    public double alpha(long now) {
+        if (stepNanos <= 0)
+            return 1;
+        return Math.max(0, Math.min(1, (double) (now - time) / stepNanos));
+    }
+
+    /**
+     * @return number of objects
+     */
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @return type of the object i
+     */
+    public EntityType getType(int i) {
+        return types[i];
+    }
+
+    /**
+     * @return x of the centre of the object i relative to its position
+     */
+    public double getCentreX(int i) {
+        return centreX[i];
+    }
+
+    /**
+     * @return y of the centre of the object i relative to its position
+     */
+    public double getCentreY(int i) {
+        return centreY[i];
+    }
+
+    /**
+     * @return radius of the object i
+     */
+    public double getRadius(int i) {
+        return radii[i];
+    }
+
+    /**
+     * Draws the object i from the copied values.
+     * @param g graphics translated to the world coordinates
+     * @param x x of the position to draw the object at
+     * @param y y of the position to draw the object at
+     */
+    public void draw(int i, Graphics2D g, double x, double y) {
+        switch (types[i]) {
+            case ASTEROID:
+                Asteroid.draw(g, x, y, angles[i], radii[i]);
+                break;
+            case BLACK_HOLE:
+                BlackHole.draw(g, x, y);
+                break;
+            case BULLET:
+                Bullet.draw(g, x, y, radii[i], labels[i]);
+                break;
+            case ENEMY_SHIP:
+            case PLAYER_SHIP:
+            case HELPER_POD:
+                Ship.draw(g, x, y, angles[i], colours[i], (flags[i] & THRUSTING) != 0, (flags[i] & SHIELDING) != 0,
+                        labels[i]);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * @return x of the object i at the fraction alpha of the way from the previous step
+     */
+    public double getX(int i, double alpha) {
+        return interpolate(previousX[i], x[i], alpha, Constants.WORLD_WIDTH);
+    }
+
+    /**
+     * @return y of the object i at the fraction alpha of the way from the previous step
+     */
+    public double getY(int i, double alpha) {
+        return interpolate(previousY[i], y[i], alpha, Constants.WORLD_HEIGHT);
+    }
+
+    /**
+     * @return index of the object with the given id, -1 if it is not in this state
+     */
+    public int indexOf(int id) {
+        int i = Arrays.binarySearch(ids, id);
+        return i >= 0 ? i : -1;
+    }
+
+    /**
+     * @return particles of the step
+     */
+    public ParticleSystem.State getParticles() {
+        return particles;
+    }
+
+    /**
+     * @param playerId id of the player
+     * @return HUD of the player, null if there is no such player
+     */
+    public Hud getHud(int playerId) {
+        return playerId < huds.length ? huds[playerId] : null;
+    }
+
+    /**
+     * @return step the state was made after
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * Values shown by the HUD of a player.
+     */
+    public static class Hud {
+        public final int lives, shield, pods; //lives, shield charges and pods left
+        public final boolean shielding; //shield is on
+        public final boolean respawning; //ship is waiting to be recreated
+        public final long respawnTime; //steps the ship has waited so far
+        public final int score, enemiesLeft; //score of the player, enemies left in the game
+        public final long timeLeft; //seconds left to the end of the round
+
+        Hud(Player player, ScoreTracker scoreTracker) {
+            PlayerShip ship = player.getShip();
+            lives = player.getLives();
+            shield = ship.getShield();
+            pods = ship.maxPods;
+            shielding = ship.isShielding();
+            respawning = ship.getRespawning();
+            respawnTime = ship.respawnTime;
+            score = scoreTracker.getScore(player.getName());
+            enemiesLeft = scoreTracker.getEnemiesLeft();
+            timeLeft = scoreTracker.getTimeLeft();
+        }
+    }
+
+    private static double interpolate(double from, double to, double alpha, double size) {
+        if (Double.isNaN(from))
+            return to;
+        double delta = GameObject.wrapDelta(to - from, size); //the shorter way across the world edge
+        if (Math.abs(delta) > MAX_STEP)
+            return to;
+        return to - delta * (1 - alpha);
+    }
+}
@@ -22,6 +22,19 @@ public class ScoreTracker implements Serializable {
         this.roundTime = roundTime;
     }
 
+    /**
+     * @return copy of this tracker which does not change when this one does (e.g. to be sent to the clients)
+     */
+    public ScoreTracker copy() {
+        ScoreTracker copy = new ScoreTracker(roundTime);
+        copy.scores = new HashMap<>(scores);
+        copy.enemiesLeft = enemiesLeft;
+        copy.startTime = startTime;
+        copy.pausedTime = pausedTime;
+        copy.timeLeft = timeLeft;
+        return copy;
+    }
+
     /**
      * Gets the score from the Map and returns it. If not existing yet - returns 0.
      * @param playerName name of the player
@@ -0,0 +1,102 @@
+package game;
+
+import utilities.ImageManager;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Background of the world split into square tiles. A tile is scaled from the image once, when it is seen first,
+ * and only the tiles on the screen are drawn, so the cost of a frame depends on the size of the screen rather
+ * than on the size of the world. The scaled world is too large to be kept whole, so only the tiles used
+ * most recently are kept.
+ */
+public class TiledBackground {
+    public static final int TILE_SIZE = 512; //width and height of a tile in pixels
+    public static final int MAX_TILES = 64; //number of tiles kept, a few screens worth
+
+    private final Image image; //background image
+    private final double left, top; //top-left corner of the background in the world
+    private final double width, height; //size of the background in the world
+    private final int columns, rows; //number of tiles across and down
+    private final Map<Integer, Image> tiles; //scaled tiles by index, least recently used first
+    private int rendered; //number of tiles scaled so far
+
+    /**
+     * @param image  background image
+     * @param left   x of the top-left corner of the background in the world
+     * @param top    y of the top-left corner of the background in the world
+     * @param width  width the image is scaled to
+     * @param height height the image is scaled to
+     */
+    public TiledBackground(Image image, double left, double top, double width, double height) {
+        this.image = image;
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        columns = (int) Math.ceil(width / TILE_SIZE);
+        rows = (int) Math.ceil(height / TILE_SIZE);
+        tiles = new LinkedHashMap<Integer, Image>(MAX_TILES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Image> eldest) {
+                if (size() <= MAX_TILES)
+                    return false;
+                ImageManager.release(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Draws the tiles which overlap the given part of the world.
+     * @param g graphics translated to the world coordinates
+     * @param x x of the top-left corner of the screen in the world
+     * @param y y of the top-left corner of the screen in the world
+     * @param w width of the screen
+     * @param h height of the screen
+     */
+    public void draw(Graphics2D g, double x, double y, double w, double h) {
+        int firstColumn = Math.max(0, (int) Math.floor((x - left) / TILE_SIZE));
+        int lastColumn = Math.min(columns - 1, (int) Math.floor((x + w - left) / TILE_SIZE));
+        int firstRow = Math.max(0, (int) Math.floor((y - top) / TILE_SIZE));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((y + h - top) / TILE_SIZE));
+        for (int row = firstRow; row <= lastRow; row++)
+            for (int column = firstColumn; column <= lastColumn; column++)
+                g.drawImage(tile(column, row), (int) left + column * TILE_SIZE, (int) top + row * TILE_SIZE, null);
+    }
+
+    /**
+     * @return the tile, scaled from the image if it is not kept
+     */
+    private Image tile(int column, int row) {
+        Integer index = row * columns + column;
+        Image tile = tiles.get(index);
+        if (tile == null) {
+            tile = render(column, row);
+            tiles.put(index, tile);
+        }
+        return tile;
+    }
+
+    private Image render(int column, int row) {
+        BufferedImage tile = ImageManager.createCompatibleImage(TILE_SIZE, TILE_SIZE, Transparency.OPAQUE);
+        Graphics2D g = tile.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.translate(-column * TILE_SIZE, -row * TILE_SIZE);
+        g.scale(width / image.getWidth(null), height / image.getHeight(null));
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        rendered++;
+        return tile;
+    }
+
+    /**
+     * @return number of tiles scaled so far
+     */
+    public int getRendered() {
+        return rendered;
+    }
+}
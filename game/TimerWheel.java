@@ -0,0 +1,89 @@
+package game;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timer wheel driven by the game tick. Used for delayed state changes (like the end of invincibility)
+ * without creating any threads. A task scheduled d ticks ahead is put into slot (tick + d) mod size together with
+ * the number of full turns of the wheel left before it is due, so advancing only looks at a single slot.
+ * Implements Serializable so pending tasks are kept in saved games.
+ */
+public class TimerWheel implements Serializable {
+    private static final int SIZE = 512; //number of slots, must be a power of two
+
+    /**
+     * Task run when its timer expires. Must be serialisable so it can be saved with the game.
+     */
+    public interface Task extends Serializable {
+        void run();
+    }
+
+    /**
+     * Task scheduled in a slot together with the number of turns of the wheel left.
+     */
+    private static class Entry implements Serializable {
+        private long rounds;
+        private final Task task;
+
+        Entry(long rounds, Task task) {
+            this.rounds = rounds;
+            this.task = task;
+        }
+    }
+
+    private final List<List<Entry>> slots; //scheduled entries in every slot
+    private final List<Task> due = new ArrayList<>(); //tasks due in the current tick, reused between ticks
+    private long tick; //number of ticks advanced so far
+    private int size; //number of pending tasks
+
+    public TimerWheel() {
+        slots = new ArrayList<>(SIZE);
+        for (int i = 0; i < SIZE; i++)
+            slots.add(new ArrayList<>());
+    }
+
+    /**
+     * Schedules a task to be run after the given number of ticks.
+     * @param delay number of ticks (at least 1)
+     * @param task  task to run
+     */
+    public void schedule(long delay, Task task) {
+        delay = Math.max(1, delay);
+        int slot = (int) ((tick + delay) & (SIZE - 1));
+        slots.get(slot).add(new Entry((delay - 1) / SIZE, task));
+        size++;
+    }
+
+    /**
+     * Moves the wheel by one tick and runs all tasks which are due.
+     * Tasks scheduled by the run tasks are never run in the same tick.
+     */
+    public void advance() {
+        tick++;
+        List<Entry> slot = slots.get((int) (tick & (SIZE - 1)));
+        for (int i = slot.size() - 1; i >= 0; i--) {
+            Entry entry = slot.get(i);
+            if (entry.rounds > 0) {
+                entry.rounds--;
+            } else { //remove by swapping with the last entry, order of tasks in a slot does not matter
+                due.add(entry.task);
+                slot.set(i, slot.get(slot.size() - 1));
+                slot.remove(slot.size() - 1);
+            }
+        }
+
+        size -= due.size();
+        for (Task task : due)
+            task.run();
+        due.clear();
+    }
+
+    /**
+     * @return number of tasks waiting to be run
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -1,10 +1,7 @@
 package game;
 
-import game.model.GameObject;
-import game.model.Particle;
 import game.model.PlayerShip;
 import utilities.Sprite;
-import utilities.Vector2D;
 
 import javax.swing.*;
 import java.awt.*;
@@ -13,14 +10,17 @@ import java.awt.*;
  * View class that handles rendering of all GameObjects and UI.
  */
 public class View extends JComponent {
-    private Sprite background; //background of the game
-    private Minimap minimap; //minimap object showing the game world and player
-    private Game game; //current game
+    private TiledBackground background; //background of the game
+    private Minimap minimap; //minimap showing the game world, its objects and the player
+    private volatile Game game; //current game, replaced by the client thread while a frame may be drawn
     private Camera camera; //camera object that follows player
-    private Player player; //player/user
-    private PlayerShip playerShip; //player's ship
-    private Vector2D playerShipPosition; //player's ship's position
+    private final Viewport viewport; //part of the world on the screen, skips drawing what cannot be seen
+    private volatile int drawnCount, culledCount; //objects and particles drawn and culled in the last frame
+    private volatile Player player; //player/user
+    private volatile PlayerShip playerShip; //player's ship
+    private double focusX = Constants.MID_WORLD_X, focusY = Constants.MID_WORLD_Y; //where the player's ship was last drawn
     private double minimapMidX, minimapMidY, minimapX, minimapY; //important points on the minimap (centre and top-left points)
+    private static final Dimension FRAME_SIZE = new Dimension(Constants.FRAME_WIDTH, Constants.FRAME_HEIGHT); //Frame dimensions combined together
 
     /**
      * Constructor. Initializes the background, camera and minimap.
@@ -29,108 +29,152 @@ public class View extends JComponent {
      */
     public View(Game game) {
         this.game = game;
+        game.setRendered(true);
         camera = new Camera(Constants.FRAME_WIDTH / 2, Constants.FRAME_HEIGHT / 2);
-        minimap = new Minimap(Sprite.MILKYWAY1, new Vector2D(minimapX, minimapY), new Vector2D(0, 0), Constants.FRAME_WIDTH / 4, Constants.FRAME_HEIGHT / 4);
-        background = new Sprite(Sprite.MILKYWAY1, new Vector2D(Constants.MID_WORLD_X, Constants.MID_WORLD_Y), new Vector2D(0, 0), Constants.WORLD_WIDTH + 2000, Constants.WORLD_HEIGHT + 1200);
+        viewport = new Viewport(Constants.FRAME_WIDTH, Constants.FRAME_HEIGHT, Constants.WORLD_WIDTH, Constants.WORLD_HEIGHT);
+        minimap = new Minimap(Sprite.MILKYWAY1, Constants.FRAME_WIDTH / 4, Constants.FRAME_HEIGHT / 4);
+        background = new TiledBackground(Sprite.MILKYWAY1, -1000, -600, Constants.WORLD_WIDTH + 2000, Constants.WORLD_HEIGHT + 1200); //centred on the world
     }
 
+    /**
+     * Replaces the drawn game. The new game publishes render states, the old one stops publishing them.
+     *
+     * @param game game to be drawn
+     */
     public void setGame(Game game) {
+        if (game != this.game) {
+            this.game.setRendered(false);
+            game.setRendered(true);
+        }
         this.game = game;
     }
 
     /**
-     * Sets the Player, his ship and the ship's position.
+     * Sets the Player and his ship.
      *
      * @param player current Player of the game
      */
     public void setPlayer(Player player) {
         this.player = player;
         this.playerShip = player.getShip();
-        this.playerShipPosition = playerShip.getPosition();
     }
 
     /**
-     * Paint method. Draws the UI, background and Game Objects.
+     * Paint method used when Swing repaints the view.
      *
      * @param g0 graphic component
      */
     @Override
     public void paintComponent(Graphics g0) {
-        Graphics2D g = (Graphics2D) g0;
+        render((Graphics2D) g0);
+    }
+
+    /**
+     * Draws a frame: the UI, background and Game Objects. Called by paintComponent, or by the ActiveRenderer
+     * thread with the graphics of its back buffer. Everything drawn comes from the RenderState published by the
+     * game after its last step, so the frame is consistent and the game is never locked.
+     *
+     * @param g graphics to draw the frame with
+     */
+    public void render(Graphics2D g) {
+        RenderState state = game.getRenderState();
+        if (state == null) //the game has not made a step since it started being drawn
+            return;
+        double alpha = state.alpha(System.nanoTime());
+
+        //the camera and the minimap follow the ship where it is drawn
+        int ship = state.indexOf(playerShip.id);
+        if (ship >= 0) {
+            focusX = state.getX(ship, alpha);
+            focusY = state.getY(ship, alpha);
+        }
+        camera.update(focusX, focusY); //update the camera position
 
         //translate to the camera values
         g.translate(camera.getX(), camera.getY());
-        background.draw(g);
-        minimap.update(); //update minimap position
-        minimap.draw(g);
+        viewport.moveTo(-camera.getX(), -camera.getY());
+        background.draw(g, -camera.getX(), -camera.getY(), Constants.FRAME_WIDTH, Constants.FRAME_HEIGHT);
+        updateMinimap(focusX, focusY); //update minimap position
+        minimap.draw(g, state, (int) minimapX, (int) minimapY);
         g.setColor(Color.WHITE);
 
         //translate to the minimap values and draw rectangles around it so they make a frame
-        g.translate(minimap.position.x, minimap.position.y);
+        g.translate(minimapX, minimapY);
         g.fillOval((int) minimapMidX, (int) minimapMidY, 10, 10);
         g.fillRect(-Constants.FRAME_WIDTH / 8, -Constants.FRAME_HEIGHT / 8, Constants.FRAME_WIDTH / 4, 5);
         g.fillRect(-Constants.FRAME_WIDTH / 8, Constants.FRAME_HEIGHT / 8, Constants.FRAME_WIDTH / 4, 5);
         g.fillRect(-Constants.FRAME_WIDTH / 8, -Constants.FRAME_HEIGHT / 8, 5, Constants.FRAME_HEIGHT / 4);
         g.fillRect(Constants.FRAME_WIDTH / 8, -Constants.FRAME_HEIGHT / 8, 5, Constants.FRAME_HEIGHT / 4 + 5);
-        g.translate(-minimap.position.x, -minimap.position.y);
-
-        //calls draw method for every GameObject and Particle
-        for (GameObject object : game.objects)
-            object.draw(g);
-        synchronized (Game.class) {
-            for (Particle p : game.particles)
-                p.draw(g);
-        }
+        g.translate(-minimapX, -minimapY);
+
+        //calls draw method for every GameObject and Particle which can be seen, between the last two steps
+        for (int i = 0; i < state.size(); i++)
+            viewport.draw(state, i, g, state.getX(i, alpha), state.getY(i, alpha));
+        state.getParticles().draw(g, viewport);
+        drawnCount = viewport.getDrawn();
+        culledCount = viewport.getCulled();
         g.translate(-camera.getX(), -camera.getY());
-        camera.update(); //update the camera position
+
+        if (Constants.SHOW_FRAME_STATS)
+            g.drawString("Drawn: " + drawnCount + " Culled: " + culledCount, 5, Constants.FRAME_HEIGHT - 30);
+
+        RenderState.Hud hud = state.getHud(player.getId());
+        if (hud == null) //the player has not joined the game yet
+            return;
 
         //draws the UI in the top-left position and top-right position
         g.setColor(Color.WHITE);
-        ScoreTracker st = game.getScoreTracker();
-        g.drawString("Lives: " + player.getLives(), 5, 15);
-        g.drawString("Shield: " + playerShip.getShield(), 5, 35);
-        g.drawString("Pods: " + playerShip.maxPods, 5, 75);
-
-        g.drawString("Enemies: " + st.getEnemiesLeft(), Constants.FRAME_WIDTH - 100, 15);
-        g.drawString("Time: " + st.getTimeLeft(), Constants.FRAME_WIDTH - 100, 55);
-        g.drawString("Score: " + st.getScore(player.getName()), Constants.FRAME_WIDTH - 100, 35);
-        if (playerShip.isShielding() && playerShip.getShield() > 0)
+        g.drawString("Lives: " + hud.lives, 5, 15);
+        g.drawString("Shield: " + hud.shield, 5, 35);
+        g.drawString("Pods: " + hud.pods, 5, 75);
+
+        g.drawString("Enemies: " + hud.enemiesLeft, Constants.FRAME_WIDTH - 100, 15);
+        g.drawString("Time: " + hud.timeLeft, Constants.FRAME_WIDTH - 100, 55);
+        g.drawString("Score: " + hud.score, Constants.FRAME_WIDTH - 100, 35);
+        if (hud.shielding && hud.shield > 0)
             g.drawString("Shield: ENABLED", 5, 55);
         else
             g.drawString("Shield: DISABLED", 5, 55);
 
         //if player is respawning - show the counting time
-        if (playerShip.getRespawning())
-            g.drawString("Respawning: " + (200 - playerShip.respawnTime), Constants.FRAME_WIDTH / 2, Constants.FRAME_HEIGHT / 2);
+        if (hud.respawning)
+            g.drawString("Respawning: " + (Constants.ticks(PlayerShip.RESPAWN_TIME) - hud.respawnTime),
+                    Constants.FRAME_WIDTH / 2, Constants.FRAME_HEIGHT / 2);
     }
 
-    @Override
-    public Dimension getPreferredSize() {
-        return Constants.FRAME_SIZE;
+    /**
+     * @return number of objects and particles drawn in the last frame
+     */
+    public int getDrawnCount() {
+        return drawnCount;
     }
 
     /**
-     * Minimap class representing the minimap in the Game which shows the entire Game World and Player's position.
+     * @return number of objects and particles skipped in the last frame as they could not be seen
      */
-    class Minimap extends Sprite {
-        public Minimap(Image image, Vector2D s, Vector2D direction, double width, double height) {
-            super(image, s, direction, width, height);
-        }
+    public int getCulledCount() {
+        return culledCount;
+    }
 
-        /**
-         * Updates the position of the minimap on screen.
-         */
-        public void update() {
-            minimapX = playerShipPosition.x + Constants.FRAME_WIDTH / 3;
-            minimapY = playerShipPosition.y + Constants.FRAME_HEIGHT / 3;
-            minimap.position.set(minimapX, minimapY);
-
-            double differenceWorldMapX = playerShipPosition.x - Constants.MID_WORLD_X;
-            minimapMidX = differenceWorldMapX / 8;
-            double differenceWorldMapY = playerShipPosition.y - Constants.MID_WORLD_Y;
-            minimapMidY = differenceWorldMapY / 8;
-        }
+    @Override
+    public Dimension getPreferredSize() {
+        return FRAME_SIZE;
+    }
 
+    /**
+     * Updates the position of the minimap on screen and of the player on the minimap.
+     *
+     * @param shipX x of the player's ship
+     * @param shipY y of the player's ship
+     */
+    private void updateMinimap(double shipX, double shipY) {
+        minimapX = shipX + Constants.FRAME_WIDTH / 3;
+        minimapY = shipY + Constants.FRAME_HEIGHT / 3;
+
+        double differenceWorldMapX = shipX - Constants.MID_WORLD_X;
+        minimapMidX = differenceWorldMapX / 8;
+        double differenceWorldMapY = shipY - Constants.MID_WORLD_Y;
+        minimapMidY = differenceWorldMapY / 8;
     }
 
     /**
@@ -147,10 +191,13 @@ public class View extends JComponent {
         /**
          * Updates the coordinates of the camera depending on the player's position.
          * Player should always be on the middle of the screen.
+         *
+         * @param shipX x of the player's ship where it is drawn
+         * @param shipY y of the player's ship where it is drawn
          */
-        public void update() {
-            x = -(int) playerShipPosition.x + Constants.FRAME_WIDTH / 2;
-            y = -(int) playerShipPosition.y + Constants.FRAME_HEIGHT / 2;
+        public void update(double shipX, double shipY) {
+            x = -(int) shipX + Constants.FRAME_WIDTH / 2;
+            y = -(int) shipY + Constants.FRAME_HEIGHT / 2;
         }
 
         public int getX() {
@@ -0,0 +1,100 @@
+package game;
+
+import java.awt.*;
+
+/**
+ * Part of the world shown on the screen, used to skip the drawing of objects which would not be seen.
+ * The world wraps around, so near its edges the screen also shows the other side of the world: objects there
+ * are drawn shifted by the size of the world. Counts the objects drawn and culled since the last move.
+ */
+public class Viewport {
+    public static final int MARGIN = 100; //extra space around the screen, covers drawings larger than the radius
+
+    private final double width, height; //size of the screen
+    private final double worldWidth, worldHeight; //size of the world
+    private double left, top; //top-left corner of the screen in the world
+    private int drawn, culled; //objects drawn and culled since the last move
+
+    public Viewport(double width, double height, double worldWidth, double worldHeight) {
+        this.width = width;
+        this.height = height;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    /**
+     * Moves the viewport for a new frame and resets the counts.
+     * @param left x of the top-left corner of the screen in the world
+     * @param top  y of the top-left corner of the screen in the world
+     */
+    public void moveTo(double left, double top) {
+        this.left = left;
+        this.top = top;
+        drawn = 0;
+        culled = 0;
+    }
+
+    /**
+     * Draws the object if it can be seen, shifted to the side of the world wrap the screen shows.
+     * @param state  state the object is drawn from
+     * @param i      index of the object in the state
+     * @param g      graphics translated to the world coordinates
+     * @param x      x of the position to draw the object at
+     * @param y      y of the position to draw the object at
+     * @return true if the object has been drawn
+     */
+    public boolean draw(RenderState state, int i, Graphics2D g, double x, double y) {
+        double dx = shift(x + state.getCentreX(i), state.getRadius(i), left, width, worldWidth);
+        double dy = shift(y + state.getCentreY(i), state.getRadius(i), top, height, worldHeight);
+        if (Double.isNaN(dx) || Double.isNaN(dy)) {
+            culled++;
+            return false;
+        }
+        drawn++;
+        state.draw(i, g, x + dx, y + dy);
+        return true;
+    }
+
+    /**
+     * Checks whether a circle which is not wrapped around the world (e.g. a particle) can be seen, and counts it.
+     * @return true if the circle should be drawn
+     */
+    public boolean isVisible(double x, double y, double radius) {
+        boolean visible = x + radius + MARGIN >= left && x - radius - MARGIN <= left + width
+                && y + radius + MARGIN >= top && y - radius - MARGIN <= top + height;
+        if (visible)
+            drawn++;
+        else
+            culled++;
+        return visible;
+    }
+
+    /**
+     * @return shift (0 or the size of the world either way) at which the circle overlaps the range of the screen
+     * on one axis, NaN if it is not seen at all
+     */
+    private static double shift(double centre, double radius, double start, double size, double world) {
+        double reach = radius + MARGIN;
+        if (centre + reach >= start && centre - reach <= start + size)
+            return 0;
+        if (centre + world + reach >= start && centre + world - reach <= start + size)
+            return world;
+        if (centre - world + reach >= start && centre - world - reach <= start + size)
+            return -world;
+        return Double.NaN;
+    }
+
+    /**
+     * @return number of objects and particles drawn since the last move
+     */
+    public int getDrawn() {
+        return drawn;
+    }
+
+    /**
+     * @return number of objects and particles skipped since the last move
+     */
+    public int getCulled() {
+        return culled;
+    }
+}
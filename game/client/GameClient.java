@@ -15,6 +15,7 @@ public abstract class GameClient implements Runnable {
     protected Player player; //current player
     protected Difficulty difficulty; //difficulty of the game
     protected Leaderboard leaderboard; //leaderboards of the game
+    protected ActiveRenderer renderer; //draws the frames if active rendering is on, null otherwise
 
     public GameClient(Difficulty difficulty, Leaderboard leaderboard) {
         this.difficulty = difficulty;
@@ -27,4 +28,25 @@ public abstract class GameClient implements Runnable {
      * @return true if the game has successfully started
      */
     public abstract boolean init(String playerName);
+
+    /**
+     * Creates the window showing the view and starts the render thread if active rendering is on.
+     * @return window of the game
+     */
+    protected GameWindow createWindow() {
+        GameWindow gw = new GameWindow(view);
+        if (Constants.ACTIVE_RENDERING) {
+            renderer = new ActiveRenderer(gw, view, Constants.TARGET_FPS);
+            renderer.start();
+        }
+        return gw;
+    }
+
+    /**
+     * Asks Swing to repaint the view, unless the frames are drawn by the render thread.
+     */
+    protected void repaint() {
+        if (renderer == null)
+            view.repaint();
+    }
 }
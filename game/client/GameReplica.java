@@ -0,0 +1,150 @@
+package game.client;
+
+import game.Game;
+import game.Player;
+import game.ScoreTracker;
+import game.model.GameObject;
+import game.model.ParticleSystem;
+import game.model.PlayerShip;
+import game.model.Ship;
+import game.server.Snapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Local copy of a game running on the server, kept up to date by applying delta snapshots.
+ * The copy is a normal Game instance (its loop is never run) so it can be drawn by the View.
+ */
+public class GameReplica implements Snapshot.Changes {
+    private final Game game; //local copy of the game
+    private final int playerId; //id of the player of the client in the game
+    private final Map<Integer, GameObject> entities = new HashMap<>(); //objects of the copy by their id
+    private long ackId = -1; //id of the last snapshot applied
+
+    /**
+     * @param player player returned by the server when connecting, his ship is used until the server sends it
+     */
+    public GameReplica(Player player) {
+        game = new Game(new ScoreTracker(0));
+        game.getPlayers()[player.getId()] = player;
+        playerId = player.getId();
+    }
+
+    /**
+     * @return local copy of the game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return id of the player of the client in the game
+     */
+    public int getPlayerId() {
+        return playerId;
+    }
+
+    /**
+     * @return id of the last snapshot applied, to be acknowledged to the server
+     */
+    public long getAckId() {
+        return ackId;
+    }
+
+    /**
+     * Forgets the state of the copy so the next snapshot from the server is a full one.
+     */
+    public void reset() {
+        ackId = -1;
+    }
+
+    /**
+     * Applies a snapshot to the copy. Despawned objects explode into particles like they do on the server.
+     *
+     * @param snapshot snapshot relative to the last one applied (or a full one)
+     */
+    public void apply(Snapshot snapshot) {
+        if (snapshot.isFull()) {
+            entities.clear();
+            game.objects.clear();
+        } else if (snapshot.getBaseId() != ackId) { //not relative to our state - wait for a proper one
+            return;
+        }
+
+        for (int id : snapshot.getDespawns()) {
+            GameObject o = entities.remove(id);
+            if (o != null) {
+                game.objects.remove(o);
+                game.particles.emit(o.position.x, o.position.y, ParticleSystem.colourOf(o), 100);
+            }
+        }
+        for (GameObject o : snapshot.getSpawns()) {
+            o.load();
+            entities.put(o.id, o);
+            game.objects.add(o);
+        }
+        snapshot.forEachChange(this);
+
+        game.setScoreTracker(snapshot.getScoreTracker());
+        for (Snapshot.PlayerState state : snapshot.getPlayers())
+            applyPlayer(state);
+
+        game.particles.update();
+        game.publishRenderState();
+        ackId = snapshot.getId();
+    }
+
+    private void applyPlayer(Snapshot.PlayerState state) {
+        Player[] players = game.getPlayers();
+        GameObject ship = entities.get(state.shipId);
+        if (players[state.id] == null) {
+            if (!(ship instanceof PlayerShip)) //ship not known yet
+                return;
+            players[state.id] = new Player(state.id, state.name, (PlayerShip) ship);
+        }
+
+        Player player = players[state.id];
+        if (ship instanceof PlayerShip && ship != player.getShip())
+            player.setShip((PlayerShip) ship);
+
+        PlayerShip playerShip = player.getShip();
+        player.setLives(state.lives);
+        player.setDead(state.dead);
+        playerShip.setShield(state.shield);
+        playerShip.maxPods = state.maxPods;
+        playerShip.setRespawning(state.respawning);
+        playerShip.respawnTime = state.respawnTime;
+    }
+
+    @Override
+    public void position(int id, double x, double y) {
+        GameObject o = entities.get(id);
+        if (o != null)
+            o.position.set(x, y);
+    }
+
+    @Override
+    public void velocity(int id, double vx, double vy) {
+        GameObject o = entities.get(id);
+        if (o != null)
+            o.velocity.set(vx, vy);
+    }
+
+    @Override
+    public void direction(int id, double angle) {
+        GameObject o = entities.get(id);
+        if (o != null && o.direction != null)
+            o.direction.set(Math.cos(angle), Math.sin(angle));
+    }
+
+    @Override
+    public void flags(int id, int flags) {
+        GameObject o = entities.get(id);
+        if (o != null) {
+            o.invincible = (flags & Snapshot.INVINCIBLE) != 0;
+            if (o instanceof Ship)
+                ((Ship) o).setShielding((flags & Snapshot.SHIELDING) != 0);
+        }
+    }
+}
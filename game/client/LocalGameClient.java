@@ -39,7 +39,7 @@ public class LocalGameClient extends GameClient {
         keys.action().pause = true;
         view = new View(game);
         view.setPlayer(player);
-        GameWindow gw = new GameWindow(view);
+        GameWindow gw = createWindow();
         gw.addKeyListener(keys);
         menu = new Menu(gw, keys.action());
         menu.setElements(Menu.Configuration.SINGLEPLAYER_LOBBY);
@@ -50,7 +50,7 @@ public class LocalGameClient extends GameClient {
     }
 
     /**
-     * Client loop handling actions stored in Action object and passing them to the Game. Calls View repaint.
+     * Client loop handling actions stored in Action object and passing them to the Game. Repaints the View.
      */
     @Override
     public void run() {
@@ -112,7 +112,7 @@ public class LocalGameClient extends GameClient {
                     player.setDead(false);
                 }
 
-                view.repaint();
+                repaint();
                 Thread.sleep(Constants.DELAY);
             } catch (Exception e) {
                 e.printStackTrace();
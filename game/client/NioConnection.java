@@ -0,0 +1,114 @@
+package game.client;
+
+import game.Difficulty;
+import game.Player;
+import game.controller.Action;
+import game.controller.ActionCodec;
+import game.server.Snapshot;
+import game.server.WireProtocol;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Client side of a connection to NioGameServer. Inputs are written by the client loop while the messages pushed
+ * by the server are read by another thread, so neither waits for a round trip.
+ */
+public class NioConnection implements Closeable {
+    public static final Object ROOM_CLOSED = new Object(); //read when the room of the player has been torn down
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private volatile long bytesRead; //bytes of all messages read so far
+    private final ActionCodec codec = new ActionCodec(); //encodes the inputs
+    private final ByteBuffer input = ByteBuffer.allocate(WireProtocol.HEADER + ActionCodec.SIZE); //reused INPUT message
+
+    /**
+     * Connects to the server.
+     * @param host address of the server
+     * @param port port of the server
+     */
+    public NioConnection(String host, int port) throws IOException {
+        channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+    }
+
+    /**
+     * Asks the server to add a player to the game.
+     * @param playerName nickname of the player
+     */
+    public void hello(String playerName) throws IOException {
+        write(WireProtocol.message(WireProtocol.HELLO, playerName.getBytes("UTF-8")));
+    }
+
+    /**
+     * Sends the current action of the player.
+     * @param action action of the player
+     */
+    public synchronized void sendInput(Action action) throws IOException {
+        input.clear();
+        input.putInt(1 + ActionCodec.SIZE).put(WireProtocol.INPUT).put(codec.encode(action));
+        input.flip();
+        write(input);
+    }
+
+    /**
+     * Asks the server to start a new game in a new room, the other players keep their game.
+     * @param difficulty difficulty of the new game
+     */
+    public void newGame(Difficulty difficulty) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(12);
+        payload.putInt(difficulty.getNumerOfAsteroids()).putInt(difficulty.getNumberOfEnemies()).putInt(difficulty.getRoundTime());
+        write(WireProtocol.message(WireProtocol.NEW_GAME, payload.array()));
+    }
+
+    /**
+     * Asks the server to add the player to a room with a free place, after his room has been torn down.
+     */
+    public void join() throws IOException {
+        write(WireProtocol.message(WireProtocol.JOIN, new byte[0]));
+    }
+
+    /**
+     * Blocks until the next message from the server arrives.
+     * @return Player (after HELLO, JOIN or a new game), Snapshot or ROOM_CLOSED
+     */
+    public Object read() throws IOException, ClassNotFoundException {
+        int length = in.readInt();
+        if (length <= 0 || length > WireProtocol.MAX_MESSAGE)
+            throw new IOException("Malformed message of length " + length);
+        byte type = in.readByte();
+        byte[] payload = new byte[length - 1];
+        in.readFully(payload);
+        bytesRead += 4 + length;
+
+        if (type == WireProtocol.ROOM_CLOSED && payload.length == 0)
+            return ROOM_CLOSED;
+        Object message = WireProtocol.deserialise(payload, 0, payload.length);
+        if ((type == WireProtocol.WELCOME && message instanceof Player)
+                || (type == WireProtocol.SNAPSHOT && message instanceof Snapshot))
+            return message;
+        throw new IOException("Unexpected message of type " + type);
+    }
+
+    /**
+     * @return number of bytes of all messages read so far
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    private synchronized void write(ByteBuffer message) throws IOException {
+        while (message.hasRemaining())
+            channel.write(message);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,146 @@
+package game.client;
+
+import game.*;
+import game.controller.Action;
+import game.controller.Keys;
+import game.server.Snapshot;
+
+import java.io.IOException;
+
+/**
+ * Multiplayer client for NioGameServer. Snapshots pushed by the server are applied to the local copy of the game
+ * by a separate thread, so the frame rate of the client does not depend on the round trip time.
+ */
+public class NioGameClient extends GameClient {
+    private final String host; //address of the server
+    private final int port; //port of the server
+    private NioConnection connection; //connection to the server
+    private volatile GameReplica replica; //local copy of the game, replaced after a new game is started
+    private volatile boolean inRoom; //the player is in a room, false once it has been torn down
+    private volatile boolean roomClosed; //the room has been torn down and the lobby is to be shown
+
+    public NioGameClient(String host, int port, Difficulty difficulty, Leaderboard leaderboard) {
+        super(difficulty, leaderboard);
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Connects to the server, waits for the player and starts the thread receiving snapshots.
+     * @param playerName nickname of the player to be added
+     * @return true if the game has successfully started
+     */
+    @Override
+    public boolean init(String playerName) {
+        try {
+            connection = new NioConnection(host, port);
+            connection.hello(playerName);
+            Object message = connection.read();
+            while (!(message instanceof Player))
+                message = connection.read();
+            player = (Player) message;
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+            return false;
+        }
+
+        replica = new GameReplica(player);
+        inRoom = true;
+        game = replica.getGame();
+        Thread receiver = new Thread(this::receive);
+        receiver.setDaemon(true);
+        receiver.start();
+
+        keys = new Keys();
+        view = new View(game);
+        view.setPlayer(player);
+
+        GameWindow gw = createWindow();
+        gw.addKeyListener(keys);
+        menu = new Menu(gw, keys.action());
+        menu.setElements(Menu.Configuration.MULTIPLAYER_LOBBY);
+        menu.setVisible(true);
+        return true;
+    }
+
+    /**
+     * Applies the messages pushed by the server until the connection is closed.
+     */
+    private void receive() {
+        try {
+            while (true) {
+                Object message = connection.read();
+                if (message instanceof Player) { //a new game has been started or a room joined
+                    replica = new GameReplica((Player) message);
+                    inRoom = true;
+                } else if (message == NioConnection.ROOM_CLOSED) {
+                    inRoom = false;
+                    roomClosed = true;
+                } else
+                    replica.apply((Snapshot) message);
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Client loop sending actions stored in Action object to the server. Repaints the View.
+     */
+    @Override
+    public void run() {
+        while (true) {
+            try {
+                Action action = keys.action();
+                GameReplica current = replica;
+                if (inRoom)
+                    connection.sendInput(action);
+
+                game = current.getGame();
+                Player p = game.getPlayers()[current.getPlayerId()]; //the id changes with the room
+                if (p != null)
+                    player = p;
+                view.setGame(game);
+                view.setPlayer(player);
+
+                if (action.pause) {
+                    menu.setVisible(true);
+                    action.pause = false;
+                }
+                if (roomClosed) {
+                    roomClosed = false;
+                    menu.setElements(Menu.Configuration.MULTIPLAYER_LOBBY);
+                    menu.setVisible(true);
+                }
+                if (action.resume) {
+                    menu.setVisible(false);
+                    action.resume = false;
+                    if (!inRoom)
+                        connection.join();
+                }
+                if (action.newgame) {
+                    connection.newGame(difficulty);
+                    action.newgame = false;
+                }
+                if (action.exit) {
+                    String playerName = player.getName();
+                    int score = game.getScoreTracker().getScore(playerName);
+                    if (score > 0)
+                        leaderboard.saveScore(score, playerName);
+                    System.exit(0);
+                }
+
+                if (player.isDead()) {
+                    menu.setElements(Menu.Configuration.MULTIPLAYER_LOBBY);
+                    menu.setVisible(true);
+                    player.setDead(false);
+                }
+
+                repaint();
+                Thread.sleep(Constants.DELAY);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -2,9 +2,10 @@ package game.client;
 
 import game.*;
 import game.controller.Action;
+import game.controller.ActionCodec;
 import game.controller.Keys;
-import game.model.GameObject;
 import game.server.GameServer;
+import game.server.Snapshot;
 import game.GameWindow;
 
 import java.rmi.RemoteException;
@@ -14,6 +15,10 @@ import java.rmi.RemoteException;
  */
 public class RemoteGameClient extends GameClient {
     private GameServer server; // reference to the remote server
+    private GameReplica replica; // local copy of the game kept up to date with snapshots from the server
+    private int roomId; // id of the room on the server the player has joined
+    private boolean inRoom; // the player is in the room, false once he has left it or it has been torn down
+    private final ActionCodec codec = new ActionCodec(); // packs the actions sent to the server
 
     public RemoteGameClient(GameServer server, Difficulty difficulty, Leaderboard leaderboard) throws RemoteException {
         super(difficulty, leaderboard);
@@ -28,17 +33,17 @@ public class RemoteGameClient extends GameClient {
     @Override
     public boolean init(String playerName) {
         try {
-            player = server.connect(playerName); // connect to the remote server
+            joinRoom(server.findRoom(), playerName); // join a room with a free place on the remote server
         } catch (RemoteException e) {
             e.printStackTrace();
         }
 
-        if (player != null) {
+        if (inRoom) {
             keys = new Keys();
             view = new View(execute(new Action()));
             view.setPlayer(player);
 
-            GameWindow gw = new GameWindow(view);
+            GameWindow gw = createWindow();
             gw.addKeyListener(keys);
             menu = new Menu(gw, keys.action());
             menu.setElements(Menu.Configuration.MULTIPLAYER_LOBBY);
@@ -49,26 +54,59 @@ public class RemoteGameClient extends GameClient {
     }
 
     /**
-     * Updates the server with player's action. Loads all game objects after deserialisation of the Game returned from the server.
+     * Leaves the current room, if any, and joins the given one.
+     * @param roomId id of the room, -1 if the server could not give one
+     * @param playerName nickname of the player
+     * @return true if the player has joined the room
+     */
+    private boolean joinRoom(int roomId, String playerName) throws RemoteException {
+        if (inRoom)
+            server.leave(this.roomId, player.getId()); // frees the place and removes the ship from the old room
+        inRoom = false;
+        Player joined = roomId < 0 ? null : server.join(roomId, playerName);
+        if (joined == null)
+            return false;
+        this.roomId = roomId;
+        player = joined;
+        replica = new GameReplica(player);
+        inRoom = true;
+        return true;
+    }
+
+    /**
+     * Shows the lobby, from which the player can join a room or start a new one.
+     */
+    private void toLobby() {
+        inRoom = false;
+        if (menu != null) { // null while the client is initialised, the lobby is shown then anyway
+            menu.setElements(Menu.Configuration.MULTIPLAYER_LOBBY);
+            menu.setVisible(true);
+        }
+    }
+
+    /**
+     * Updates the server with player's action and applies the snapshot returned by the server to the local copy of the game.
+     * Goes back to the lobby if the room has been torn down.
      * @param action Action performed by the player
-     * @return updated Game instance
+     * @return updated copy of the Game, left as it was if the player is not in a room
      */
     private Game execute(Action action) {
+        if (!inRoom)
+            return replica.getGame();
         try {
-            Game game = server.update(player.getId(), action);
-
-            for (GameObject obj : game.objects)
-                obj.load();
-
-            return game;
+            Snapshot snapshot = server.update(roomId, player.getId(), codec.pack(action), replica.getAckId());
+            if (snapshot != null)
+                replica.apply(snapshot);
+            else // the room has been torn down
+                toLobby();
         } catch (RemoteException e) {
             e.printStackTrace();
         }
-        return null;
+        return replica.getGame();
     }
 
     /**
-     * Client loop handling actions stored in Action object and passing them to the Game. Calls View repaint.
+     * Client loop handling actions stored in Action object and passing them to the Game. Repaints the View.
      */
     @Override
     public void run() {
@@ -77,7 +115,9 @@ public class RemoteGameClient extends GameClient {
                 Action action = keys.action();
 
                 game = execute(action); // send action to the server and get back an updated Game
-                player = game.getPlayers()[player.getId()];
+                Player current = game.getPlayers()[player.getId()];
+                if (current != null) // null until the first snapshot of a new room has the player
+                    player = current;
 
                 view.setGame(game);
                 view.setPlayer(player);
@@ -89,11 +129,14 @@ public class RemoteGameClient extends GameClient {
                 if (action.resume) {
                     menu.setVisible(false);
                     action.resume = false;
+                    if (!inRoom && !joinRoom(server.findRoom(), player.getName()))
+                        toLobby();
                 }
                 if (action.newgame) {
-                    server.newGame(difficulty);
-                    player = server.connect(player.getName());
                     action.newgame = false;
+                    // a new room, the other players keep their game
+                    if (!joinRoom(server.createRoom(difficulty), player.getName()))
+                        toLobby();
                 }
                 if (action.exit) {
                     String playerName = player.getName();
@@ -109,7 +152,7 @@ public class RemoteGameClient extends GameClient {
                     player.setDead(false);
                 }
 
-                view.repaint();
+                repaint();
                 Thread.sleep(Constants.DELAY);
             } catch (Exception e) {
                 e.printStackTrace();
@@ -0,0 +1,145 @@
+package game.controller;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compact fixed-layout binary encoding of Action sent by the clients instead of the serialised object.
+ * Layout (5 bytes): [short sequence][short flags][byte turn << 4 | thrust], turn and thrust as signed nibbles.
+ * The same fields can be packed into a long for transports which send primitives (RMI).
+ */
+public class ActionCodec {
+    public static final int SIZE = 5; //bytes of an encoded action
+
+    //bits of the flags
+    private static final int SHOOT = 1;
+    private static final int SAVE = 1 << 1;
+    private static final int LOAD = 1 << 2;
+    private static final int NEWGAME = 1 << 3;
+    private static final int EXIT = 1 << 4;
+    private static final int PAUSE = 1 << 5;
+    private static final int RESUME = 1 << 6;
+    private static final int SHIELD_ON = 1 << 7;
+    private static final int POD = 1 << 8;
+
+    private final ByteBuffer buffer = ByteBuffer.allocate(SIZE); //reused for every encoded action
+    private int sequence; //sequence number of the last encoded action
+
+    /**
+     * Encodes the action with the next sequence number into the buffer of the codec. Allocates nothing.
+     *
+     * @param action action to be encoded
+     * @return buffer of the codec holding the encoded action, valid until the next call
+     */
+    public ByteBuffer encode(Action action) {
+        sequence = (sequence + 1) & 0xFFFF;
+        buffer.clear();
+        encode(action, sequence, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @return next sequence number packed together with the action (see pack)
+     */
+    public long pack(Action action) {
+        sequence = (sequence + 1) & 0xFFFF;
+        return pack(action, sequence);
+    }
+
+    /**
+     * Writes the action at the current position of the buffer.
+     *
+     * @param action   action to be encoded
+     * @param sequence sequence number of the action (only the low 16 bits are kept)
+     * @param out      buffer with at least SIZE bytes remaining
+     */
+    public static void encode(Action action, int sequence, ByteBuffer out) {
+        out.putShort((short) sequence);
+        out.putShort((short) flags(action));
+        out.put((byte) ((action.turn & 0xF) << 4 | (action.thrust & 0xF)));
+    }
+
+    /**
+     * Reads an action from the current position of the buffer.
+     *
+     * @param in     buffer with at least SIZE bytes remaining
+     * @param action action to be overwritten with the decoded fields
+     * @return sequence number of the action
+     */
+    public static int decode(ByteBuffer in, Action action) {
+        int sequence = in.getShort() & 0xFFFF;
+        setFlags(action, in.getShort());
+        byte nibbles = in.get();
+        action.turn = nibbles >> 4; //sign extended
+        action.thrust = (byte) (nibbles << 4) >> 4;
+        return sequence;
+    }
+
+    /**
+     * @return sequence number of the action at the current position of the buffer, the position is not changed
+     */
+    public static int sequence(ByteBuffer in) {
+        return in.getShort(in.position()) & 0xFFFF;
+    }
+
+    /**
+     * @return sequence number of the packed action
+     */
+    public static int sequence(long packed) {
+        return (int) (packed & 0xFFFF);
+    }
+
+    /**
+     * Packs the action into a long: bits 0-15 sequence, 16-31 flags, 32-35 thrust, 36-39 turn.
+     */
+    public static long pack(Action action, int sequence) {
+        return (sequence & 0xFFFFL) | (long) flags(action) << 16 | (action.thrust & 0xFL) << 32 | (action.turn & 0xFL) << 36;
+    }
+
+    /**
+     * Unpacks an action packed by pack.
+     *
+     * @param packed packed action
+     * @param action action to be overwritten with the unpacked fields
+     * @return sequence number of the action
+     */
+    public static int unpack(long packed, Action action) {
+        setFlags(action, (int) (packed >>> 16));
+        action.thrust = (int) (packed << 28 >> 60);
+        action.turn = (int) (packed << 24 >> 60);
+        return sequence(packed);
+    }
+
+    /**
+     * @return true if the sequence number a is newer than b, taking the wrap around of 16 bits into account
+     */
+    public static boolean isNewer(int a, int b) {
+        return (short) (a - b) > 0;
+    }
+
+    private static int flags(Action action) {
+        int flags = 0;
+        if (action.shoot) flags |= SHOOT;
+        if (action.save) flags |= SAVE;
+        if (action.load) flags |= LOAD;
+        if (action.newgame) flags |= NEWGAME;
+        if (action.exit) flags |= EXIT;
+        if (action.pause) flags |= PAUSE;
+        if (action.resume) flags |= RESUME;
+        if (action.shieldOn) flags |= SHIELD_ON;
+        if (action.pod) flags |= POD;
+        return flags;
+    }
+
+    private static void setFlags(Action action, int flags) {
+        action.shoot = (flags & SHOOT) != 0;
+        action.save = (flags & SAVE) != 0;
+        action.load = (flags & LOAD) != 0;
+        action.newgame = (flags & NEWGAME) != 0;
+        action.exit = (flags & EXIT) != 0;
+        action.pause = (flags & PAUSE) != 0;
+        action.resume = (flags & RESUME) != 0;
+        action.shieldOn = (flags & SHIELD_ON) != 0;
+        action.pod = (flags & POD) != 0;
+    }
+}
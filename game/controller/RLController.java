@@ -2,6 +2,7 @@ package game.controller;
 
 import game.*;
 import game.model.*;
+import utilities.SeededRandom;
 import utilities.Vector2D;
 
 import java.io.FileInputStream;
@@ -29,10 +30,12 @@ public class RLController implements Controller {
 
     //They determine for how long the pod will behave quite randomly (exploring strategies) at the beginning
     private static final double explorationFactor = 1;
+    private static final EntityType[] ENEMY_TYPES = {EntityType.ENEMY_SHIP, EntityType.ASTEROID}; //types the pod shoots at
     private static int[] counts = null;
     private static int[] countsXState = null;
 
-    private long activationTime; //make the pod inactive for some time after being drop
+    private long activationTick; //make the pod inactive for some time after being drop
+    private final SeededRandom random; //random number stream of the controller, split from the one of the game
     Action action = new Action(); //action to take
     private boolean initialised = false;
 
@@ -46,10 +49,16 @@ public class RLController implements Controller {
         game = pgame;
         mothership = (PlayerShip) pship;
 
-        //wait for half second before starting the pod
-        activationTime = System.currentTimeMillis() + 1000;
+        random = game.getRandom().split();
 
+        //wait for a second before starting the pod, counted in ticks of the game
+        activationTick = game.getTick() + Constants.ticks(1000);
 
+
+    }
+
+    public PlayerShip getMothership() {
+        return mothership;
     }
 
     public void init(){
@@ -186,10 +195,10 @@ public class RLController implements Controller {
         GameObject getNearestEnemy(Vector2D pos) {
             GameObject result = null;
             double bestdist = Double.MAX_VALUE;
-            for (GameObject object : game.objects) {
-
-                //making sure it doesn't check itself or PlayerShip or BlackHole which should be ignored
-                if (object instanceof EnemyShip || object instanceof Asteroid) {
+            //only the buckets of enemies and asteroids, so it doesn't check itself or PlayerShip or BlackHole which should be ignored
+            for (EntityType type : ENEMY_TYPES) {
+                for (int i = 0; i < game.objects.size(type); i++) {
+                    GameObject object = game.objects.get(type, i);
                     double d = pos.dist(object.position);
                     if (d < bestdist) {
                         result = object;
@@ -233,7 +242,7 @@ public class RLController implements Controller {
     public Action action() {
         if (initialised) {
             //if the Pod is not activated yet - do nothing
-            if (activationTime > System.currentTimeMillis()) {
+            if (activationTick > game.getTick()) {
                 action.turn = 0;
                 action.shoot = false;
                 return action;
@@ -279,7 +288,7 @@ public class RLController implements Controller {
         // selects the best action most of the time
         // but it may randomly choose to take a random action
         // this is useful to support exploration of multiple stategies
-        if (Math.random() > explorationFactor / Math.sqrt(1 + countsXState[currentState.index])) {
+        if (random.nextDouble() > explorationFactor / Math.sqrt(1 + countsXState[currentState.index])) {
             double maxQ = Double.NEGATIVE_INFINITY;
             for (int i = currentState.index * NUM_ACTIONS; i < NUM_ACTIONS + currentState.index * NUM_ACTIONS; i++) {
 
@@ -289,7 +298,7 @@ public class RLController implements Controller {
                     result = i - currentState.index * NUM_ACTIONS;
                 }
             }
-        } else result = (int) Math.floor(Math.random() * NUM_ACTIONS); //random action
+        } else result = random.nextInt(NUM_ACTIONS); //random action
 
         return result;
     }
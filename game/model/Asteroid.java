@@ -1,11 +1,14 @@
 package game.model;
 
+import game.Game;
+import utilities.RotationCache;
+import utilities.SeededRandom;
 import utilities.SoundManager;
 import utilities.Sprite;
 import utilities.Vector2D;
 
 import java.awt.*;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import static game.Constants.*;
@@ -15,12 +18,11 @@ import static game.Constants.*;
  */
 public class Asteroid extends GameObject {
     public static final double MAX_SPEED = 100; //max speed of the asteroid
-    private transient Sprite asteroidSprite; //sprite used to represent the asteroid
     private Set<Asteroid> spawnedAsteroids; //list of newly spawned asteroids
     private String hitBy; //determines the source of collision
 
     /**
-     * Constructor. Calls the constructor of superclass, assigns the sprite to the object.
+     * Constructor. Calls the constructor of superclass.
      *
      * @param position - position of the Asteroid when spawned
      * @param velocity - velocity of the Asteroid
@@ -28,8 +30,6 @@ public class Asteroid extends GameObject {
      */
     public Asteroid(Vector2D position, Vector2D velocity, int radius) {
         super(position, velocity, radius);
-        asteroidSprite = new Sprite(Sprite.ASTEROID1, position, velocity, radius * 2, radius * 2);
-
     }
 
     public String getHitBy() {
@@ -44,41 +44,46 @@ public class Asteroid extends GameObject {
     }
 
     /**
-     * Draws the sprite of the object.
+     * Draws the sprite of an asteroid, turned in the direction of its velocity.
      *
-     * @param g - graphics component.
+     * @param g      - graphics component.
+     * @param x      - x of the position to draw at
+     * @param y      - y of the position to draw at
+     * @param angle  - angle of the velocity in radians
+     * @param radius - radius of the asteroid
      */
-    public void draw(Graphics2D g) {
-        asteroidSprite.draw(g);
+    public static void draw(Graphics2D g, double x, double y, double angle, double radius) {
+        Tiles.CACHE.draw(g, x, y, angle, (int) (radius * 2));
     }
 
     /**
      * Creates random Asteroid objects when called.
      *
+     * @param random random number stream of the game
      * @return Asteroid object
      */
-    public static Asteroid makeRandomAsteroid() {
+    public static Asteroid makeRandomAsteroid(SeededRandom random) {
         int vx, vy;
 
         //decide if asteroid goes left or right
-        if (Math.random() < 0.5)
-            vx = (int) (Math.random() * MAX_SPEED);
+        if (random.nextDouble() < 0.5)
+            vx = (int) (random.nextDouble() * MAX_SPEED);
         else
-            vx = (int) (Math.random() * -MAX_SPEED);
+            vx = (int) (random.nextDouble() * -MAX_SPEED);
 
 
         //decide if asteroid goes up or down
-        if (Math.random() < 0.5)
-            vy = (int) (Math.random() * MAX_SPEED);
+        if (random.nextDouble() < 0.5)
+            vy = (int) (random.nextDouble() * MAX_SPEED);
         else
-            vy = (int) (Math.random() * -MAX_SPEED);
+            vy = (int) (random.nextDouble() * -MAX_SPEED);
 
         int x, y;
-        x = (int) (Math.random() * WORLD_WIDTH);
-        if (Math.random() < 0.5) {
-            y = (int) (Math.random() * WORLD_HEIGHT / 3);
+        x = (int) (random.nextDouble() * WORLD_WIDTH);
+        if (random.nextDouble() < 0.5) {
+            y = (int) (random.nextDouble() * WORLD_HEIGHT / 3);
         } else {
-            y = (int) (WORLD_HEIGHT - (Math.random() * WORLD_HEIGHT / 3));
+            y = (int) (WORLD_HEIGHT - (random.nextDouble() * WORLD_HEIGHT / 3));
         }
         Vector2D position = new Vector2D(x, y);
         Vector2D velocity = new Vector2D(vx, vy);
@@ -90,10 +95,11 @@ public class Asteroid extends GameObject {
      * Checks which player hit the Asteroid - needed for multiplayer functionality.
      *
      * @param other - second Game Object to check
+     * @param game  - game the objects belong to
      */
     @Override
-    public void collisionHandling(GameObject other) {
-        super.collisionHandling(other);
+    public void collisionHandling(GameObject other, Game game) {
+        super.collisionHandling(other, game);
         if (other instanceof PlayerShip)
             hitBy = ((PlayerShip) other).getName();
     }
@@ -118,7 +124,7 @@ public class Asteroid extends GameObject {
 
         //if radius is higher/equal than 15, create two smaller asteroids
         if (radius >= 15) {
-            spawnedAsteroids = new HashSet<>();
+            spawnedAsteroids = new LinkedHashSet<>(); //ids are given in the order of spawning
             spawnedAsteroids.add(new Asteroid(new Vector2D(position.x + radius, position.y + radius), new Vector2D(-velocity.x, -velocity.y), (int) radius / 2));
             spawnedAsteroids.add(new Asteroid(new Vector2D(position), new Vector2D(velocity), (int) radius / 2));
 
@@ -138,10 +144,9 @@ public class Asteroid extends GameObject {
      * @param otherAsteroid - second Asteroid which collide with this object
      */
     public void asteroidInteract(Asteroid otherAsteroid) {
-        Vector2D positionThis = new Vector2D(position);
-
-        //finding minimum translation vector (so objects no longer collide)
-        Vector2D difference = new Vector2D(positionThis.subtract(otherAsteroid.position));
+        //finding minimum translation vector (so objects no longer collide), measured across the world edge if shorter
+        Vector2D difference = new Vector2D(wrapDelta(position.x - otherAsteroid.position.x, WORLD_WIDTH),
+                wrapDelta(position.y - otherAsteroid.position.y, WORLD_HEIGHT));
         double distanceBetween = difference.mag();
         Vector2D minTranslationVec = new Vector2D(difference.mult(((radius + otherAsteroid.radius) - distanceBetween) / distanceBetween));
 
@@ -158,10 +163,18 @@ public class Asteroid extends GameObject {
     }
 
     /**
-     * Load method used to load the sprite when user wants to load previously saved game state.
+     * @return true as the position is only changed by the velocity
      */
     @Override
-    public void load() {
-        asteroidSprite = new Sprite(Sprite.ASTEROID1, position, velocity, radius * 2, radius * 2);
+    public boolean isBallistic() {
+        return true;
+    }
+
+    /**
+     * Rotations of the asteroid image. Kept in a separate class so the image is only loaded when the asteroids
+     * are drawn.
+     */
+    private static class Tiles {
+        private static final RotationCache CACHE = new RotationCache(Sprite.ASTEROID1, 64); //64 rotations, 5.6 degrees apart
     }
 }
@@ -1,5 +1,6 @@
 package game.model;
 
+import game.Game;
 import utilities.Vector2D;
 
 import java.util.List;
@@ -20,34 +21,57 @@ public class BlackHole extends GameObject {
      * Method that teleports other Game Objects colliding with this Black Hole to another Black Hole.
      *
      * @param other model colliding with this.
+     * @param game  game the objects belong to
      */
     @Override
-    public void collisionHandling(GameObject other) {
+    public void collisionHandling(GameObject other, Game game) {
         if (canHit(other) && this.overlap(other)) {
             //gets another Black Hole object randomly
-            BlackHole otherHole = otherHoles.get((int) (Math.random() * otherHoles.size()));
+            BlackHole otherHole = otherHoles.get(game.getRandom().nextInt(otherHoles.size()));
             while (otherHole == this) //makes sure it doesn't chose itself
-                otherHole = otherHoles.get((int) (Math.random() * otherHoles.size()));
+                otherHole = otherHoles.get(game.getRandom().nextInt(otherHoles.size()));
 
             other.position.set(otherHole.position.x + radius, otherHole.position.y + radius);
-            other.setInvincible(true, 3000); //sets the model do not collide with the other Black Hole for 3 seconds so they can escape it
+            other.setInvincible(true, 3000, game.getTimers()); //sets the model do not collide with the other Black Hole for 3 seconds so they can escape it
         }
     }
 
+    /**
+     * Black Hole is drawn with the position in its top-left corner, so the centre is moved by the radius.
+     */
+    @Override
+    public double centreX() {
+        return position.x + radius;
+    }
+
+    @Override
+    public double centreY() {
+        return position.y + radius;
+    }
+
+    /**
+     * @return true as the position is only changed by the velocity
+     */
+    @Override
+    public boolean isBallistic() {
+        return true;
+    }
+
     /**
      * Draws the Black Hole.
      *
      * @param g - graphics component
+     * @param x - x of the position to draw at
+     * @param y - y of the position to draw at
      */
-    @Override
-    public void draw(Graphics2D g) {
+    public static void draw(Graphics2D g, double x, double y) {
         g.setColor(Color.BLACK);
-        g.fillOval((int) position.x, (int) position.y, 200, 200);
+        g.fillOval((int) x, (int) y, 200, 200);
         g.setColor(Color.WHITE);
-        g.drawOval((int) position.x + 22, (int) position.y + 22, 150, 150);
+        g.drawOval((int) x + 22, (int) y + 22, 150, 150);
         g.setColor(Color.ORANGE);
-        g.drawOval((int) position.x - 12, (int) position.y - 12, 230, 230);
-        g.drawOval((int) position.x - 24, (int) position.y - 24, 250, 250);
+        g.drawOval((int) x - 12, (int) y - 12, 230, 230);
+        g.drawOval((int) x - 24, (int) y - 24, 250, 250);
     }
 
 }
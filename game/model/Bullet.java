@@ -4,12 +4,18 @@ import utilities.Vector2D;
 
 import java.awt.*;
 
+import static game.Constants.DISCRETE_BULLETS;
+import static game.Constants.ticks;
+
 /**
  * Class representing bullet objects in the game. Inherits from GameObject abstract class.
  */
 public class Bullet extends GameObject {
-    private int time; //time to live
+    public static final int LIFETIME = 10000; //time to live in milliseconds
+
+    private int time; //steps lived so far
     private String source; //source of the bullet
+    private double lastMoveX, lastMoveY; //way moved in the last step, 0 until the bullet has moved
 
     /**
      * Constructor. Calls constructor of superclass.
@@ -25,20 +31,58 @@ public class Bullet extends GameObject {
         this.source = source;
     }
 
+    public String getSource() {
+        return source;
+    }
+
     /**
-     * Adds time to the living bullet's time.
+     * Adds a step to the living bullet's time.
      */
     public void addTime() {
-        if (++time >= 1000) this.dead = true;
+        if (++time >= ticks(LIFETIME)) this.dead = true;
+    }
+
+    /**
+     * Remembers the way of the last move, so it is the one swept.
+     */
+    @Override
+    protected void moved(double dx, double dy) {
+        lastMoveX = dx;
+        lastMoveY = dy;
+    }
+
+    /**
+     * Bullets move up to a few times their size in a step at low tick rates, so the way they actually moved
+     * in the last step is swept.
+     */
+    @Override
+    public double sweepX() {
+        return DISCRETE_BULLETS ? 0 : lastMoveX;
+    }
+
+    @Override
+    public double sweepY() {
+        return DISCRETE_BULLETS ? 0 : lastMoveY;
+    }
+
+    /**
+     * @return true as the position is only changed by the velocity
+     */
+    @Override
+    public boolean isBallistic() {
+        return true;
     }
 
     /**
      * Draws the bullet (in this case as a green circles).
      *
-     * @param g - graphics component
+     * @param g      - graphics component
+     * @param x      - x of the position to draw at
+     * @param y      - y of the position to draw at
+     * @param radius - radius of the bullet
+     * @param source - source of the bullet, gives its colour
      */
-    @Override
-    public void draw(Graphics2D g) {
+    public static void draw(Graphics2D g, double x, double y, double radius, String source) {
         switch (source) {
             case "Enemy":
                 g.setColor(Color.RED);
@@ -50,7 +94,7 @@ public class Bullet extends GameObject {
                 g.setColor(Color.BLACK);
                 break;
         }
-        g.fillOval((int) (position.x - radius), (int) (position.y - radius), (int) (2 * radius), (int) (2 * radius));
+        g.fillOval((int) (x - radius), (int) (y - radius), (int) (2 * radius), (int) (2 * radius));
     }
 
     /**
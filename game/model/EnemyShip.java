@@ -2,10 +2,9 @@ package game.model;
 
 import game.controller.Controller;
 import game.controller.WanderNShoot;
+import utilities.SeededRandom;
 import utilities.Vector2D;
 
-import java.awt.*;
-
 import static game.Constants.WORLD_HEIGHT;
 import static game.Constants.WORLD_WIDTH;
 
@@ -14,10 +13,18 @@ import static game.Constants.WORLD_WIDTH;
  */
 public class EnemyShip extends Ship {
     public EnemyShip(Vector2D pos, Vector2D vel, Vector2D dir, int radius, Controller ctrl) {
-        super(Color.RED, pos, vel, dir, radius, ctrl);
+        super(0xFF0000, pos, vel, dir, radius, ctrl);
         timeToShoot = 3000;
     }
 
+    /**
+     * @return true as the controller only reads the player ship, which is updated after the independent objects
+     */
+    @Override
+    public boolean updatesIndependently() {
+        return true;
+    }
+
     /**
      * Method that makes sure the Enemy Ship do not collide with Asteroids or other Enemy Ship.
      *
@@ -38,21 +45,22 @@ public class EnemyShip extends Ship {
      * Makes Enemy Ship in a random position and direction around the Game World.
      *
      * @param player - reference to the player object, needed to pass to WanderNShoot controller
+     * @param random - random number stream of the game
      * @return - EnemyShip object
      */
-    public static EnemyShip makeRandomEnemyShip(PlayerShip player) {
+    public static EnemyShip makeRandomEnemyShip(PlayerShip player, SeededRandom random) {
 
         int x, y;
-        x = (int) (Math.random() * WORLD_WIDTH);
-        if (Math.random() < 0.5) {
-            y = (int) (Math.random() * WORLD_HEIGHT / 4);
+        x = (int) (random.nextDouble() * WORLD_WIDTH);
+        if (random.nextDouble() < 0.5) {
+            y = (int) (random.nextDouble() * WORLD_HEIGHT / 4);
         } else {
-            y = (int) (WORLD_HEIGHT - (Math.random() * WORLD_HEIGHT / 4));
+            y = (int) (WORLD_HEIGHT - (random.nextDouble() * WORLD_HEIGHT / 4));
         }
 
         Vector2D position = new Vector2D(x, y);
         Vector2D velocity = new Vector2D(0, 0);
-        Vector2D direction = new Vector2D(Math.random(), Math.random());
+        Vector2D direction = new Vector2D(random.nextDouble(), random.nextDouble());
         WanderNShoot wn = new WanderNShoot(position, player, direction);
         EnemyShip es = new EnemyShip(position, velocity, direction, 30, wn);
         return es;
@@ -0,0 +1,210 @@
+package game.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Objects of a game kept in a dense array, every object knowing its index (GameObject.index).
+ * During a step the objects are only iterated: births and deaths are queued with spawn and despawn and applied
+ * together by commit at the end of the step, removing an object by moving the last one into its index. The cost
+ * of a step is then proportional to the number of births and deaths rather than to the number of objects.
+ * The objects of every EntityType are also kept in a bucket of their own (index in GameObject.bucketIndex),
+ * so code interested in a few types only goes through those.
+ * Everything is done by the thread running the game, other threads ask the game for changes (Game.submit).
+ * Implements Serializable, only the objects and the queued spawns are written.
+ */
+public class EntityContainer extends AbstractCollection<GameObject> implements Serializable {
+    private transient GameObject[] objects = new GameObject[64]; //objects by index, the first size are used
+    private transient int size; //number of objects
+    private transient GameObject[][] buckets; //objects by type and index in the bucket
+    private transient int[] bucketSizes; //number of objects of every type
+    private transient List<GameObject> despawns = new ArrayList<>(); //objects to be removed at the end of the step
+    private transient Queue<GameObject> spawns = new ArrayDeque<>(); //objects to be added at the end of the step
+
+    public EntityContainer() {
+        allocateBuckets();
+    }
+
+    private void allocateBuckets() {
+        buckets = new GameObject[EntityType.values().length][16];
+        bucketSizes = new int[buckets.length];
+    }
+
+    /**
+     * Queues the object to be added at the end of the step.
+     * @param object object with its id already given
+     */
+    public void spawn(GameObject object) {
+        spawns.add(object);
+    }
+
+    /**
+     * Queues the object to be removed at the end of the step.
+     * @param object object in the container
+     */
+    public void despawn(GameObject object) {
+        despawns.add(object);
+    }
+
+    /**
+     * Applies the queued deaths, then the queued births (in the order they were queued).
+     * Called by the thread running the game at the end of a step.
+     */
+    public void commit() {
+        for (GameObject object : despawns)
+            remove(object);
+        despawns.clear();
+
+        GameObject object;
+        while ((object = spawns.poll()) != null)
+            add(object);
+    }
+
+    /**
+     * @param i index of the object, below size
+     * @return object at the index
+     */
+    public GameObject get(int i) {
+        return objects[i];
+    }
+
+    /**
+     * @param type type of the objects
+     * @return number of objects of the type
+     */
+    public int size(EntityType type) {
+        return bucketSizes[type.ordinal()];
+    }
+
+    /**
+     * @param type type of the objects
+     * @param i    index of the object in the bucket, below size(type)
+     * @return object of the type at the index
+     */
+    public GameObject get(EntityType type, int i) {
+        return buckets[type.ordinal()][i];
+    }
+
+    /**
+     * Adds the object at once, unless it is there already.
+     * @return true if the object has been added
+     */
+    @Override
+    public boolean add(GameObject object) {
+        if (contains(object))
+            return false;
+        if (size == objects.length)
+            objects = Arrays.copyOf(objects, size * 2);
+        object.index = size;
+        objects[size++] = object;
+
+        int type = object.type().ordinal();
+        GameObject[] bucket = buckets[type];
+        if (bucketSizes[type] == bucket.length)
+            bucket = buckets[type] = Arrays.copyOf(bucket, bucket.length * 2);
+        object.bucketIndex = bucketSizes[type];
+        bucket[bucketSizes[type]++] = object;
+        return true;
+    }
+
+    /**
+     * Removes the object at once, moving the last object into its index.
+     * @return true if the object has been removed
+     */
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o))
+            return false;
+        GameObject object = (GameObject) o;
+        GameObject last = objects[--size];
+        objects[object.index] = last;
+        last.index = object.index;
+        objects[size] = null;
+        object.index = -1;
+
+        int type = object.type().ordinal();
+        GameObject[] bucket = buckets[type];
+        last = bucket[--bucketSizes[type]];
+        bucket[object.bucketIndex] = last;
+        last.bucketIndex = object.bucketIndex;
+        bucket[bucketSizes[type]] = null;
+        object.bucketIndex = -1;
+        return true;
+    }
+
+    /**
+     * Checks the index of the object, so an object of another container (e.g. one decoded from a snapshot) is not
+     * taken for the one at its index.
+     */
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof GameObject))
+            return false;
+        int i = ((GameObject) o).index;
+        return i >= 0 && i < size && objects[i] == o;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            objects[i].index = -1;
+            objects[i].bucketIndex = -1;
+            objects[i] = null;
+        }
+        size = 0;
+        for (GameObject[] bucket : buckets)
+            Arrays.fill(bucket, null);
+        Arrays.fill(bucketSizes, 0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Iterates the objects by index. The container must not be changed during the iteration, queue the changes instead.
+     */
+    @Override
+    public Iterator<GameObject> iterator() {
+        return new Iterator<GameObject>() {
+            private int next; //index of the next object
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public GameObject next() {
+                if (next >= size)
+                    throw new NoSuchElementException();
+                return objects[next++];
+            }
+        };
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(size);
+        for (int i = 0; i < size; i++)
+            out.writeObject(objects[i]);
+        out.writeObject(new ArrayList<>(spawns));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        int n = in.readInt();
+        objects = new GameObject[Math.max(64, n)];
+        allocateBuckets();
+        despawns = new ArrayList<>();
+        spawns = new ArrayDeque<>();
+        for (int i = 0; i < n; i++)
+            add((GameObject) in.readObject()); //the index is transient, so it is given again
+        spawns.addAll((List<GameObject>) in.readObject());
+    }
+}
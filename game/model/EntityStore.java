@@ -0,0 +1,275 @@
+package game.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Structure-of-arrays store of the GameObject state used by the collision pass and the movement of ballistic objects.
+ * Every object gets a stable slot (kept in GameObject.slot) and its position, velocity, radius and flags are copied
+ * into parallel primitive arrays, so both passes are linear sweeps over the arrays instead of walking the object graph.
+ * Objects keep their Vector2D fields (controllers hold references to them), the store is synchronised with them once
+ * per tick and the new positions of ballistic objects are written back after the sweep.
+ */
+public class EntityStore {
+    public static final int BALLISTIC = 1; //object only moves by its velocity, so the store can integrate it
+    public static final int INVINCIBLE = 2; //object is currently invincible
+
+    private static final double SLACK = 16; //same extra reach as in SpatialHash
+
+    private final double worldWidth, worldHeight; //size of the world
+
+    //state of the objects, indexed by slot
+    private GameObject[] objects = new GameObject[0];
+    private double[] x = new double[0], y = new double[0]; //positions
+    private double[] vx = new double[0], vy = new double[0]; //velocities
+    private double[] cx = new double[0], cy = new double[0]; //offsets of the collision centre from the position
+    private double[] radius = new double[0];
+    private double[] sx = new double[0], sy = new double[0]; //movements of the swept objects in the last step
+    private int[] flags = new int[0];
+    private EntityType[] types = new EntityType[0]; //types of the objects
+    private int[] seen = new int[0]; //number of the last sync in which the slot has been seen
+
+    private int[] freeSlots = new int[0]; //stack of released slots
+    private int freeCount, high; //number of free slots and the first slot never used
+    private int epoch; //number of the current sync
+
+    //grid used to find the pairs, rebuilt on every sweep
+    private int columns, rows;
+    private double cellWidth, cellHeight;
+    private int[] cellOf = new int[0], cellStart = new int[1], ordered = new int[0];
+    private final int[] neighbours = new int[9];
+
+    private int[] pairs = new int[64]; //overlapping pairs found by the last sweep, two slots per pair
+    private int pairCount;
+
+    public EntityStore(double worldWidth, double worldHeight) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    /**
+     * Copies the state of all the objects into the arrays, gives slots to new objects and frees the slots
+     * of objects which are no longer in the game.
+     *
+     * @param alive all objects currently in the game
+     */
+    public void sync(Collection<GameObject> alive) {
+        epoch++;
+        for (GameObject object : alive) {
+            int slot = object.slot;
+            //slot is transient, so objects loaded from a save may point at a slot of another object
+            if (slot < 0 || slot >= high || objects[slot] != object)
+                slot = allocate(object);
+            seen[slot] = epoch;
+            load(object);
+        }
+
+        for (int slot = 0; slot < high; slot++)
+            if (objects[slot] != null && seen[slot] != epoch)
+                release(slot);
+    }
+
+    /**
+     * Copies the state of a single object into its slot.
+     *
+     * @param object object already having a slot in this store
+     */
+    public void load(GameObject object) {
+        int slot = object.slot;
+        x[slot] = object.position.x;
+        y[slot] = object.position.y;
+        vx[slot] = object.velocity.x;
+        vy[slot] = object.velocity.y;
+        cx[slot] = object.centreX() - object.position.x;
+        cy[slot] = object.centreY() - object.position.y;
+        radius[slot] = object.radius;
+        sx[slot] = object.sweepX();
+        sy[slot] = object.sweepY();
+        flags[slot] = (object.isBallistic() ? BALLISTIC : 0) | (object.invincible ? INVINCIBLE : 0);
+    }
+
+    /**
+     * @param slot slot of the object
+     * @return object kept in the slot
+     */
+    public GameObject get(int slot) {
+        return objects[slot];
+    }
+
+    /**
+     * Finds all overlapping pairs of objects. Objects are counting-sorted by the cell of their centre and only
+     * the cells around each object are checked. Pairs of types which cannot interact (see EntityType.interacts)
+     * are skipped before the distance is measured. Every pair is reported once, with the lower slot first.
+     *
+     * @return number of pairs found, the slots are available through getPairs()
+     */
+    public int findPairs() {
+        double maxRadius = 0;
+        for (int slot = 0; slot < high; slot++)
+            if (objects[slot] != null)
+                maxRadius = Math.max(maxRadius, radius[slot] + Math.hypot(sx[slot], sy[slot]));
+        resizeGrid(2 * maxRadius + SLACK);
+
+        //counting sort of the slots by their cell
+        Arrays.fill(cellStart, 0);
+        for (int slot = 0; slot < high; slot++) {
+            if (objects[slot] != null) {
+                int column = Math.min(columns - 1, (int) (wrap(x[slot] + cx[slot], worldWidth) / cellWidth));
+                int row = Math.min(rows - 1, (int) (wrap(y[slot] + cy[slot], worldHeight) / cellHeight));
+                cellOf[slot] = row * columns + column;
+                cellStart[cellOf[slot] + 1]++;
+            }
+        }
+        for (int cell = 0; cell < columns * rows; cell++)
+            cellStart[cell + 1] += cellStart[cell];
+        int[] next = Arrays.copyOf(cellStart, cellStart.length);
+        for (int slot = 0; slot < high; slot++)
+            if (objects[slot] != null)
+                ordered[next[cellOf[slot]]++] = slot;
+
+        pairCount = 0;
+        for (int a = 0; a < high; a++) {
+            if (objects[a] == null)
+                continue;
+            int n = neighbourCells(cellOf[a]);
+            for (int i = 0; i < n; i++) {
+                int cell = neighbours[i];
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int b = ordered[k];
+                    if (b > a && EntityType.interacts(types[a], types[b]) && overlap(a, b))
+                        addPair(a, b);
+                }
+            }
+        }
+        return pairCount;
+    }
+
+    /**
+     * @return slots of the pairs found by the last findPairs() call, pair i is at indexes 2i and 2i + 1
+     */
+    public int[] getPairs() {
+        return pairs;
+    }
+
+    /**
+     * Same check as GameObject.overlap, done on the arrays.
+     *
+     * @return true if the collision circles of the two slots overlap
+     */
+    public boolean overlap(int a, int b) {
+        double dx = GameObject.wrapDelta(x[b] + cx[b] - x[a] - cx[a], worldWidth);
+        double dy = GameObject.wrapDelta(y[b] + cy[b] - y[a] - cy[a], worldHeight);
+        double reach = radius[a] + radius[b];
+        return GameObject.sweptDistanceSq(dx, dy, sx[b] - sx[a], sy[b] - sy[a]) < reach * reach;
+    }
+
+    /**
+     * Moves all ballistic objects by their velocity and wraps them around the world, then writes the new positions
+     * back into the objects. Does the same as GameObject.update for every such object.
+     *
+     * @param dt time step in seconds
+     */
+    public void integrate(double dt) {
+        for (int slot = 0; slot < high; slot++) {
+            if ((flags[slot] & BALLISTIC) != 0) {
+                x[slot] = (x[slot] + vx[slot] * dt + worldWidth) % worldWidth;
+                y[slot] = (y[slot] + vy[slot] * dt + worldHeight) % worldHeight;
+            }
+        }
+        for (int slot = 0; slot < high; slot++) {
+            if ((flags[slot] & BALLISTIC) != 0) {
+                objects[slot].position.set(x[slot], y[slot]);
+                objects[slot].moved(vx[slot] * dt, vy[slot] * dt);
+            }
+        }
+    }
+
+    private int allocate(GameObject object) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (high == objects.length)
+                grow(Math.max(64, objects.length * 2));
+            slot = high++;
+        }
+        objects[slot] = object;
+        types[slot] = object.type();
+        object.slot = slot;
+        return slot;
+    }
+
+    private void release(int slot) {
+        if (objects[slot].slot == slot)
+            objects[slot].slot = -1;
+        objects[slot] = null;
+        flags[slot] = 0;
+        freeSlots[freeCount++] = slot;
+    }
+
+    private void grow(int capacity) {
+        objects = Arrays.copyOf(objects, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        cx = Arrays.copyOf(cx, capacity);
+        cy = Arrays.copyOf(cy, capacity);
+        radius = Arrays.copyOf(radius, capacity);
+        sx = Arrays.copyOf(sx, capacity);
+        sy = Arrays.copyOf(sy, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        types = Arrays.copyOf(types, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        cellOf = Arrays.copyOf(cellOf, capacity);
+        ordered = Arrays.copyOf(ordered, capacity);
+    }
+
+    private void addPair(int a, int b) {
+        if (2 * pairCount + 2 > pairs.length)
+            pairs = Arrays.copyOf(pairs, pairs.length * 2);
+        pairs[2 * pairCount] = a;
+        pairs[2 * pairCount + 1] = b;
+        pairCount++;
+    }
+
+    private void resizeGrid(double reach) {
+        int newColumns = Math.max(1, (int) (worldWidth / reach));
+        int newRows = Math.max(1, (int) (worldHeight / reach));
+        if (newColumns == columns && newRows == rows)
+            return;
+
+        columns = newColumns;
+        rows = newRows;
+        cellWidth = worldWidth / columns;
+        cellHeight = worldHeight / rows;
+        cellStart = new int[columns * rows + 1];
+    }
+
+    /**
+     * Fills the neighbours array with the 3x3 block of cells around the given one, wrapping around the world edges.
+     *
+     * @return number of distinct cells written
+     */
+    private int neighbourCells(int cell) {
+        int column = cell % columns;
+        int row = cell / columns;
+        int n = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int index = ((row + dr + rows) % rows) * columns + (column + dc + columns) % columns;
+                boolean repeated = false;
+                for (int i = 0; i < n && !repeated; i++)
+                    repeated = neighbours[i] == index;
+                if (!repeated)
+                    neighbours[n++] = index;
+            }
+        }
+        return n;
+    }
+
+    private static double wrap(double v, double size) {
+        return (v % size + size) % size;
+    }
+}
@@ -0,0 +1,52 @@
+package game.model;
+
+/**
+ * Type of a game object, used to keep the objects of every type together and to skip pairs of objects
+ * which can never interact before any of their methods is called.
+ */
+public enum EntityType {
+    ASTEROID, BLACK_HOLE, BULLET, ENEMY_SHIP, PLAYER_SHIP, HELPER_POD, OTHER;
+
+    private static final EntityType[] TYPES = values();
+    private static final int[] INTERACTS = new int[TYPES.length]; //bit of every type each type can interact with
+
+    //pairs for which collisionHandling of neither object (nor Asteroid.asteroidInteract) can do anything
+    static {
+        for (EntityType a : TYPES)
+            for (EntityType b : TYPES)
+                if (a != b || a == ASTEROID || a == OTHER) //objects of the same class never hit each other
+                    INTERACTS[a.ordinal()] |= 1 << b.ordinal();
+        exclude(ASTEROID, ENEMY_SHIP); //both canHit refuse the other one
+    }
+
+    private static void exclude(EntityType a, EntityType b) {
+        INTERACTS[a.ordinal()] &= ~(1 << b.ordinal());
+        INTERACTS[b.ordinal()] &= ~(1 << a.ordinal());
+    }
+
+    /**
+     * @return true if objects of the two types may interact when they overlap, false if the pair can be skipped
+     */
+    public static boolean interacts(EntityType a, EntityType b) {
+        return (INTERACTS[a.ordinal()] & 1 << b.ordinal()) != 0;
+    }
+
+    /**
+     * @return type of the object
+     */
+    public static EntityType of(GameObject object) {
+        if (object instanceof Asteroid)
+            return ASTEROID;
+        if (object instanceof BlackHole)
+            return BLACK_HOLE;
+        if (object instanceof Bullet)
+            return BULLET;
+        if (object instanceof EnemyShip)
+            return ENEMY_SHIP;
+        if (object instanceof PlayerShip)
+            return PLAYER_SHIP;
+        if (object instanceof HelperPod)
+            return HELPER_POD;
+        return OTHER;
+    }
+}
@@ -1,13 +1,12 @@
 package game.model;
 
+import game.Game;
+import game.TimerWheel;
 import utilities.Vector2D;
 
-import java.awt.*;
 import java.awt.geom.Area;
 import java.awt.geom.Ellipse2D;
 import java.io.Serializable;
-import java.util.Timer;
-import java.util.TimerTask;
 
 import static game.Constants.*;
 
@@ -21,6 +20,29 @@ public abstract class GameObject implements Serializable {
     public boolean dead; //dictates the state of the object
     public boolean invincible; //dictates if the object is in invincibility state
     public double radius; //radius to check collision handling
+    public transient int slot = -1; //slot of the object in the EntityStore (if used)
+    public transient int index = -1; //index of the object in the EntityContainer of its game, -1 if not in one
+    public transient int bucketIndex = -1; //index of the object in the bucket of its type in the EntityContainer
+    private transient EntityType type; //type of the object, found when first asked for
+    public int id; //id of the object, unique in its game, 0 if not assigned yet
+
+    /**
+     * Hash of the id rather than of the identity, so sets of objects are iterated in the same order in every run
+     * of a game with the same seed. The id must be assigned before the object is added to a set.
+     */
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    /**
+     * @return type of the object, used instead of instanceof checks by the collision pass and the game loop
+     */
+    public final EntityType type() {
+        if (type == null)
+            type = EntityType.of(this);
+        return type;
+    }
 
     /**
      * Constructor without direction vector (not needed for every GameObject)
@@ -40,23 +62,124 @@ public abstract class GameObject implements Serializable {
     }
 
     /**
-     * Checks whether two model overlap each other.
+     * Checks whether two model overlap each other by comparing the squared distance between their centres
+     * with their summed radii. The distance is measured across the world edge if that is shorter.
      *
      * @param other - second Game Object to check
      * @return boolean true if the objects collide, else false
      */
     public boolean overlap(GameObject other) {
-        Area a1 = new Area(new Ellipse2D.Double(position.x, position.y, 2 * radius, 2 * radius));
-        Area a2 = new Area(new Ellipse2D.Double(other.position.x, other.position.y, 2 * other.radius, 2 * other.radius));
-        return a1.intersects(a2.getBounds2D());
+        if (LEGACY_OVERLAP)
+            return overlapArea(other);
+
+        double dx = wrapDelta(other.centreX() - centreX(), WORLD_WIDTH);
+        double dy = wrapDelta(other.centreY() - centreY(), WORLD_HEIGHT);
+        double reach = radius + other.radius;
+        return sweptDistanceSq(dx, dy, other.sweepX() - sweepX(), other.sweepY() - sweepY()) < reach * reach;
+    }
+
+    /**
+     * Squared distance of the closest approach of two centres during a step.
+     *
+     * @param dx - offset of the other centre at the end of the step
+     * @param dy - offset of the other centre at the end of the step
+     * @param sx - movement of the other centre relative to this one during the step (0 if neither is swept)
+     * @param sy - movement of the other centre relative to this one during the step
+     * @return squared distance between this centre and the closest point of the way the other one moved
+     */
+    public static double sweptDistanceSq(double dx, double dy, double sx, double sy) {
+        double length = sx * sx + sy * sy;
+        if (length > 0) {
+            //the other centre went from (dx - sx, dy - sy) to (dx, dy), take the point of the segment closest to ours
+            double t = Math.max(0, Math.min(1, 1 - (dx * sx + dy * sy) / length));
+            dx -= (1 - t) * sx;
+            dy -= (1 - t) * sy;
+        }
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Fast objects are tested along the way they moved in the last step (a swept circle), so they cannot pass
+     * through an object between two steps. The way ends at the current position.
+     *
+     * @return movement along x during the last step to be swept, 0 if the object is tested at its position only
+     */
+    public double sweepX() {
+        return 0;
+    }
+
+    /**
+     * @return movement along y during the last step to be swept, 0 if the object is tested at its position only
+     */
+    public double sweepY() {
+        return 0;
+    }
+
+    /**
+     * @return radius of the circle around the position covering the whole swept way, used by the broad phase
+     */
+    public double sweptRadius() {
+        return radius + Math.hypot(sweepX(), sweepY());
+    }
+
+    /**
+     * Old overlap check kept for comparison (enabled with LEGACY_OVERLAP).
+     * Builds an ellipse with the top-left corner at the position and tests it against the bounding box of the other one.
+     *
+     * @param other - second Game Object to check
+     * @return boolean true if the objects collide, else false
+     */
+    public boolean overlapArea(GameObject other) {
+        return AreaOverlap.intersects(this, other);
+    }
+
+    /**
+     * Area test of overlapArea, kept in a separate class so java.awt.geom is only loaded when it is used.
+     */
+    private static class AreaOverlap {
+        static boolean intersects(GameObject o1, GameObject o2) {
+            Area a1 = new Area(new Ellipse2D.Double(o1.position.x, o1.position.y, 2 * o1.radius, 2 * o1.radius));
+            Area a2 = new Area(new Ellipse2D.Double(o2.position.x, o2.position.y, 2 * o2.radius, 2 * o2.radius));
+            return a1.intersects(a2.getBounds2D());
+        }
+    }
+
+    /**
+     * @return x coordinate of the centre of the collision circle
+     */
+    public double centreX() {
+        return position.x;
+    }
+
+    /**
+     * @return y coordinate of the centre of the collision circle
+     */
+    public double centreY() {
+        return position.y;
+    }
+
+    /**
+     * Shortens a difference of two coordinates so it goes across the world edge if that way is shorter.
+     *
+     * @param delta difference of two coordinates
+     * @param size  size of the world in that dimension
+     * @return difference in range [-size / 2, size / 2]
+     */
+    public static double wrapDelta(double delta, double size) {
+        if (delta > size / 2)
+            return delta - size;
+        if (delta < -size / 2)
+            return delta + size;
+        return delta;
     }
 
     /**
      * Calls the hit method if the two objects collide with each other.
      *
      * @param other - second Game Object to check
+     * @param game  - game the objects belong to
      */
-    public void collisionHandling(GameObject other) {
+    public void collisionHandling(GameObject other, Game game) {
         if (canHit(other) && this.getClass() != other.getClass() //makes sure you do not check two objects of the same class
                 && this.overlap(other)) {
             this.hit();
@@ -84,12 +207,32 @@ public abstract class GameObject implements Serializable {
     public void update() {
         position.addScaled(velocity, DT);
         position.wrap(WORLD_WIDTH, WORLD_HEIGHT);
+        moved(velocity.x * DT, velocity.y * DT);
     }
 
     /**
-     * Abstract draw method to be overriden by subclasses.
+     * Called after the object has been moved by its velocity, by update or by the EntityStore.
+     *
+     * @param dx - movement along x
+     * @param dy - movement along y
      */
-    public abstract void draw(Graphics2D g);
+    protected void moved(double dx, double dy) {
+    }
+
+    /**
+     * @return true if update only moves the object by its velocity, so it can be done by the EntityStore
+     */
+    public boolean isBallistic() {
+        return false;
+    }
+
+    /**
+     * @return true if update only changes the state of this object, uses no shared randomness and reads no state
+     * changed by the update of another independent object, so it can be run in parallel with the other ones
+     */
+    public boolean updatesIndependently() {
+        return isBallistic();
+    }
 
     /**
      * Load method, to be overriden when needed.
@@ -108,16 +251,29 @@ public abstract class GameObject implements Serializable {
      * Sets the object invincible for given time, so it doesn't instantly collide again with another Game Object.
      *
      * @param invincible - boolean to make the object invincible or not invincible
-     * @param time       - time to set the invincibility for
+     * @param time       - time to set the invincibility for (in milliseconds)
+     * @param timers     - timer wheel of the game which changes the invincibility back after the time
      */
-    public void setInvincible(boolean invincible, long time) {
+    public void setInvincible(boolean invincible, long time, TimerWheel timers) {
         this.invincible = invincible;
-        Timer t = new Timer();
-        t.schedule(new TimerTask() { //Schedules the Timer object to change the invincibility after given amount of time
-            @Override
-            public void run() {
-                GameObject.this.invincible = !invincible;
-            }
-        }, time);
+        timers.schedule(ticks(time), new InvincibilityChange(this, !invincible));
+    }
+
+    /**
+     * Timer task setting the invincibility of an object.
+     */
+    private static class InvincibilityChange implements TimerWheel.Task {
+        private final GameObject object;
+        private final boolean invincible;
+
+        InvincibilityChange(GameObject object, boolean invincible) {
+            this.object = object;
+            this.invincible = invincible;
+        }
+
+        @Override
+        public void run() {
+            object.invincible = invincible;
+        }
     }
 }
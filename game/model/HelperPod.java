@@ -6,8 +6,6 @@ import game.Game;
 import utilities.SoundManager;
 import utilities.Vector2D;
 
-import java.awt.*;
-
 /**
  * Helper Pod that helps player by attacking enemies. Acts and learns using Reinforcement Learning Controller.
  */
@@ -17,21 +15,29 @@ public class HelperPod extends Ship {
     /**
      * Constructor of the Ship object. Calls the constructor of superclass (GameObject).
      *
-     * @param color     - colour of the ship
+     * @param colour    - colour of the ship as 0xRRGGBB
      * @param position  - position of the ship when spawned
      * @param velocity  - velocity of the ship when spawned
      * @param direction - direction of the ship when spawned
      * @param radius    - radius of the ship (used in Collision Handling)
      * @param ctrl      - controller of the ship
      */
-    public HelperPod(Color color, Vector2D position, Vector2D velocity, Vector2D direction, double radius, Controller ctrl) {
-        super(color, position, velocity, direction, radius, ctrl);
+    public HelperPod(int colour, Vector2D position, Vector2D velocity, Vector2D direction, double radius, Controller ctrl) {
+        super(colour, position, velocity, direction, radius, ctrl);
         mag_acc = 300; //sets acceleration to 300
         timeToShoot = 4000;
 
     }
 
 
+    /**
+     * @param ship - playership reference
+     * @return true if the pod has been summoned by the ship
+     */
+    public boolean belongsTo(Ship ship) {
+        return ctrl instanceof RLController && ((RLController) ctrl).getMothership() == ship;
+    }
+
     /**
      * Creates the HelperPod object.
      *
@@ -45,7 +51,7 @@ public class HelperPod extends Ship {
 
         //puts the pod behind the ship
         Vector2D position = new Vector2D(ship.position.x + 40, ship.position.y + 40);
-        HelperPod pod = new HelperPod(Color.BLACK, position, new Vector2D(ship.velocity), new Vector2D(ship.direction), ship.radius / 4, rlController);
+        HelperPod pod = new HelperPod(0x000000, position, new Vector2D(ship.velocity), new Vector2D(ship.direction), ship.radius / 4, rlController);
         rlController.setPod(pod);
         return pod;
     }
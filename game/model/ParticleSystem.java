@@ -0,0 +1,215 @@
+package game.model;
+
+import game.Viewport;
+import utilities.SeededRandom;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+import static game.Constants.DT;
+
+/**
+ * Fixed-capacity particle system for explosions of Game Objects. Particles are kept in a ring buffer of primitive
+ * arrays (position, velocity, time to live and colour index), so emitting and updating them allocates nothing.
+ * When the buffer is full the oldest particles are overwritten. Implements Serializable, only live particles are written.
+ */
+public class ParticleSystem implements Serializable {
+    public static final double PARTICLE_SPEED = 2000; //typical speed of the particles, in units per second
+    public static final double DRIFT = 1000; //speed added to both coordinates of the velocity, in units per second
+    public static final double TTL = 0.05; //maximum time to live, in seconds
+    public static final int SIZE = 3; //size of the particle
+    public static final int CAPACITY = 8192; //maximum number of particles, must be a power of two
+
+    //colours of the particles depending on the type of Game Object dead
+    public static final int WHITE = 0, GRAY = 1, RED = 2, GREEN = 3;
+
+    //state of the particles, indexed by position in the ring buffer
+    private transient double[] x, y, vx, vy;
+    private transient double[] ttl; //time left to live, in seconds
+    private transient byte[] colour;
+    private int tail; //index of the oldest particle
+    private int count; //number of particles between tail and head (some of them may be already dead)
+
+    private final SeededRandom random; //random velocities and times to live of the particles
+
+    /**
+     * @param random random number stream of the particles, separate from the one of the simulation
+     */
+    public ParticleSystem(SeededRandom random) {
+        this.random = random;
+        allocate();
+    }
+
+    private void allocate() {
+        x = new double[CAPACITY];
+        y = new double[CAPACITY];
+        vx = new double[CAPACITY];
+        vy = new double[CAPACITY];
+        ttl = new double[CAPACITY];
+        colour = new byte[CAPACITY];
+    }
+
+    /**
+     * @param object Game Object that got destroyed
+     * @return index of the colour of its particles
+     */
+    public static int colourOf(GameObject object) {
+        if (object instanceof Asteroid)
+            return GRAY;
+        if (object instanceof EnemyShip)
+            return RED;
+        if (object instanceof Bullet)
+            return GREEN;
+        return WHITE;
+    }
+
+    /**
+     * Emits particles at the given position with random velocities and times to live.
+     *
+     * @param px     - x position of the Game Object that got destroyed
+     * @param py     - y position of the Game Object that got destroyed
+     * @param c      - colour index of the particles
+     * @param number - number of particles to emit
+     */
+    public void emit(double px, double py, int c, int number) {
+        for (int i = 0; i < number; i++) {
+            int head = (tail + count) & (CAPACITY - 1);
+            if (count == CAPACITY) //buffer is full - overwrite the oldest particle
+                tail = (tail + 1) & (CAPACITY - 1);
+            else
+                count++;
+
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double speed = Math.abs(random.nextGaussian() * PARTICLE_SPEED);
+            x[head] = px;
+            y[head] = py;
+            vx[head] = speed * Math.cos(angle) + DRIFT;
+            vy[head] = speed * Math.sin(angle) + DRIFT;
+            ttl[head] = random.nextDouble() * TTL;
+            colour[head] = (byte) c;
+        }
+    }
+
+    /**
+     * Moves all particles by a step of the simulation (Constants.DT), counts down their times to live and drops
+     * dead particles from the tail. Called once per step.
+     */
+    public void update() {
+        for (int i = 0; i < count; i++) {
+            int p = (tail + i) & (CAPACITY - 1);
+            if (ttl[p] > 0) {
+                x[p] += vx[p] * DT;
+                y[p] += vy[p] * DT;
+                ttl[p] -= DT;
+            }
+        }
+        while (count > 0 && ttl[tail] <= 0) {
+            tail = (tail + 1) & (CAPACITY - 1);
+            count--;
+        }
+    }
+
+    /**
+     * Copies the live particles so they can be drawn by another thread while this system is updated.
+     * Called by the thread updating the particles.
+     *
+     * @return positions and colours of the live particles
+     */
+    public State copy() {
+        int live = 0;
+        for (int i = 0; i < count; i++)
+            if (ttl[(tail + i) & (CAPACITY - 1)] > 0)
+                live++;
+        State state = new State(live);
+        for (int i = 0, j = 0; i < count; i++) {
+            int p = (tail + i) & (CAPACITY - 1);
+            if (ttl[p] > 0) {
+                state.x[j] = (float) x[p];
+                state.y[j] = (float) y[p];
+                state.colour[j] = colour[p];
+                j++;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * @return number of particles in the buffer
+     */
+    public int size() {
+        return count;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        for (int i = 0; i < count; i++) {
+            int p = (tail + i) & (CAPACITY - 1);
+            out.writeDouble(x[p]);
+            out.writeDouble(y[p]);
+            out.writeDouble(vx[p]);
+            out.writeDouble(vy[p]);
+            out.writeDouble(ttl[p]);
+            out.writeByte(colour[p]);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        allocate();
+        for (int i = 0; i < count; i++) {
+            int p = (tail + i) & (CAPACITY - 1);
+            x[p] = in.readDouble();
+            y[p] = in.readDouble();
+            vx[p] = in.readDouble();
+            vy[p] = in.readDouble();
+            ttl[p] = in.readDouble();
+            colour[p] = in.readByte();
+        }
+    }
+
+    /**
+     * Live particles at one step, made by copy. Never changed after it has been made.
+     */
+    public static class State {
+        private final float[] x, y; //positions of the particles
+        private final byte[] colour; //colours of the particles
+
+        private State(int size) {
+            x = new float[size];
+            y = new float[size];
+            colour = new byte[size];
+        }
+
+        /**
+         * Draws the particles which can be seen.
+         *
+         * @param g        - graphic component
+         * @param viewport - part of the world shown on the screen
+         */
+        public void draw(Graphics2D g, Viewport viewport) {
+            for (int i = 0; i < x.length; i++) {
+                if (viewport.isVisible(x[i], y[i], SIZE)) {
+                    g.setColor(Palette.COLOURS[colour[i]]);
+                    g.fillOval((int) (x[i] - SIZE), (int) (y[i] - SIZE), 2 * SIZE, 2 * SIZE);
+                }
+            }
+        }
+
+        /**
+         * @return number of particles
+         */
+        public int size() {
+            return x.length;
+        }
+    }
+
+    /**
+     * Colours of the particles. Kept in a separate class so AWT is only loaded when the particles are drawn.
+     */
+    private static class Palette {
+        static final Color[] COLOURS = {Color.WHITE, Color.GRAY, Color.RED, Color.GREEN};
+    }
+}
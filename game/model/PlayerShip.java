@@ -7,15 +7,15 @@ import game.Game;
 import utilities.SoundManager;
 import utilities.Vector2D;
 
-import java.awt.*;
-
 /**
  * Class representing player ship controlled by a user.
  */
 public class PlayerShip extends Ship {
+    public static final int RESPAWN_TIME = 2000; //time the ship waits before it is recreated, in milliseconds
+
     private transient Game game; //reference to the current game object
     private boolean respawning = false; //dictates if the ship is in state of respawning
-    public long respawnTime = 0; //current respawn time
+    public long respawnTime = 0; //steps the ship has waited so far to be recreated
     public int maxPods = 3; //maximum number of pods to be summoned
     public HelperPod pod = null; //helper pod object
 
@@ -27,11 +27,9 @@ public class PlayerShip extends Ship {
      * @param g    - game object reference
      */
     public PlayerShip(Controller ctrl, String playerName, Game g) {
-        super(Color.BLUE, new Vector2D(Constants.MID_WORLD_X, Constants.MID_WORLD_Y), new Vector2D(0, 0), new Vector2D(0, -1), 5, ctrl);
+        super(0x0000FF, new Vector2D(Constants.MID_WORLD_X, Constants.MID_WORLD_Y), new Vector2D(0, 0), new Vector2D(0, -1), 5, ctrl);
         this.name = playerName;
         this.game = g;
-        XPTHRUST = new int[]{-8, 0, 8, 0};
-        YPTHRUST = new int[]{10, 0, 10, 20};
         shield = 3;
         game = g;
         timeToShoot = 1000;
@@ -62,6 +60,10 @@ public class PlayerShip extends Ship {
         return shield;
     }
 
+    public void setShield(int shield) {
+        this.shield = shield;
+    }
+
     /**
      * Getter and setter of respawning state.
      */
@@ -14,19 +14,19 @@ import static game.Constants.*;
  */
 public abstract class Ship extends GameObject {
 
-    private static final double DRAG = 2; //constant speed loss factor
+    private static final double DRAG = 200; //constant speed loss per second, in units per second squared
     private static final double STEER_RATE = 2 * Math.PI; //rotation velocity in radians per second
 
     protected static double mag_acc = 500; //acceleration when thrust is applied
-    private Color colour; //colour of the ship
+    private final int colour; //colour of the ship as 0xRRGGBB, kept as an int so the simulation does not load AWT
     protected Bullet bullet; //bullet object that is created when the ship shoots
 
-    private int[] XP; //array holding X coordinates of edges of the polygon representing the ship
-    private int[] YP; //array holding Y coordinates of edges of the polygon representing the ship
-    protected int[] XPTHRUST; //array holding X coordinates of edges of the polygon representing the "flame" when ship is thrusting
-    protected int[] YPTHRUST; //array holding Y coordinates of edges of the polygon representing the "flame" when ship is thrusting
+    private static final int[] XP = {-10, 0, 10, 0}; //array holding X coordinates of edges of the polygon representing the ship
+    private static final int[] YP = {10, -20, 10, 0}; //array holding Y coordinates of edges of the polygon representing the ship
+    private static final int[] XPTHRUST = {-8, 0, 8, 0}; //array holding X coordinates of edges of the polygon representing the "flame" when ship is thrusting
+    private static final int[] YPTHRUST = {10, 0, 10, 20}; //array holding Y coordinates of edges of the polygon representing the "flame" when ship is thrusting
 
-    private long previousTime; //long that controls the speed of firing the bullets
+    private int shotCooldown; //number of ticks left until the ship can shoot again
     private String controllerName; //name of the controller used by the ship
     protected Vector2D[] bulletPosVel; //position and velocity of bullets shot by this ship
 
@@ -36,26 +36,24 @@ public abstract class Ship extends GameObject {
 
     protected int shield = 0; //default shield value
     protected boolean thrusting, shielding, hit; //determines whether those action takes place or not
-    protected int timeToShoot; //determines the time between continues shooting
+    protected int timeToShoot; //determines the time between continues shooting, in milliseconds
 
     /**
      * Constructor of the Ship object. Calls the constructor of superclass (GameObject).
      *
-     * @param color     - colour of the ship
+     * @param colour    - colour of the ship as 0xRRGGBB
      * @param position  - position of the ship when spawned
      * @param velocity  - velocity of the ship when spawned
      * @param direction - direction of the ship when spawned
      * @param radius    - radius of the ship (used by CollisionHandling)
      * @param ctrl      - controller of the ship
      */
-    public Ship(Color color, Vector2D position, Vector2D velocity, Vector2D direction, double radius, Controller ctrl) {
+    public Ship(int colour, Vector2D position, Vector2D velocity, Vector2D direction, double radius, Controller ctrl) {
         super(position, velocity, direction, radius);
         this.ctrl = ctrl;
         controllerName = ctrl.getClass().getName();
-        colour = color;
+        this.colour = colour;
         bullet = null;
-        XP = new int[]{-10, 0, 10, 0};
-        YP = new int[]{10, -20, 10, 0};
     }
 
     /**
@@ -70,23 +68,27 @@ public abstract class Ship extends GameObject {
         if (velocity.x + velocity.y < Constants.MAX_PLAYER_SPEED && velocity.x + velocity.y > -Constants.MAX_PLAYER_SPEED)
             velocity.addScaled(direction, mag_acc * DT * ctrl.action().thrust);
 
-        //updates the velocity by DRAG amount
+        //updates the velocity by the DRAG lost in a step
+        double drag = DRAG * DT;
         if (velocity.x > 0)
-            velocity.subtract(DRAG, 0);
+            velocity.subtract(drag, 0);
         else if (velocity.x < 0)
-            velocity.add(DRAG, 0);
+            velocity.add(drag, 0);
 
         if (velocity.y > 0)
-            velocity.subtract(0, DRAG);
+            velocity.subtract(0, drag);
         else if (velocity.y < 0)
-            velocity.add(0, DRAG);
+            velocity.add(0, drag);
 
         //updates the position accordingly
         position.addScaled(velocity, DT);
         position.wrap(WORLD_WIDTH, WORLD_HEIGHT);
 
-        //creates stop of 1 second between creating the bullet when the ship is constantly shooting
-        if (ctrl.action().shoot && System.currentTimeMillis() - previousTime > timeToShoot) {
+        //creates stop of timeToShoot between creating the bullets when the ship is constantly shooting
+        //counted in ticks rather than wall clock time so the simulation does not depend on when a step is run
+        if (shotCooldown > 0)
+            shotCooldown--;
+        if (ctrl.action().shoot && shotCooldown <= 0) {
             mkBullet();
             ctrl.action().shoot = false;
         }
@@ -100,7 +102,7 @@ public abstract class Ship extends GameObject {
      */
     public void mkBullet() {
         bulletPosVel = new Vector2D[2];
-        previousTime = System.currentTimeMillis();
+        shotCooldown = ticks(timeToShoot);
         Vector2D vel = new Vector2D();
         vel.addScaled(direction, 800);
         Vector2D pos = new Vector2D(position);
@@ -110,20 +112,27 @@ public abstract class Ship extends GameObject {
     }
 
     /**
-     * Draws the ship objects.
+     * Draws a ship from the values copied into a RenderState, so the ship itself is not read while it is drawn.
      *
-     * @param g - graphic component
+     * @param g         - graphic component
+     * @param x         - x of the position to draw at
+     * @param y         - y of the position to draw at
+     * @param angle     - angle of the direction of the ship in radians
+     * @param colour    - colour of the ship as 0xRRGGBB
+     * @param thrusting - whether the flames are drawn
+     * @param shielding - whether the shield is drawn
+     * @param name      - name of the player drawn near the ship, null if none
      */
-    @Override
-    public void draw(Graphics2D g) {
+    public static void draw(Graphics2D g, double x, double y, double angle, int colour, boolean thrusting,
+                            boolean shielding, String name) {
         AffineTransform at = g.getTransform(); //"save" the current Affine Transform
-        g.translate(position.x, position.y); //translate to position of the ship
+        g.translate(x, y); //translate to position of the ship
 
         //rotates, scales and draws the ship accordingly
-        double rot = direction.angle() + Math.PI / 2;
+        double rot = angle + Math.PI / 2;
         g.rotate(rot);
         g.scale(1, 1);
-        g.setColor(colour);
+        g.setColor(new Color(colour));
         g.fillPolygon(XP, YP, XP.length);
         //if thrusting - draws the flames
         if (thrusting) {
@@ -137,7 +146,7 @@ public abstract class Ship extends GameObject {
         }
 
         //draws the name of the player near the ship
-        if (this instanceof PlayerShip) {
+        if (name != null) {
             g.drawString(name, -12, 20);
         }
         g.setTransform(at);
@@ -166,10 +175,22 @@ public abstract class Ship extends GameObject {
         return b;
     }
 
+    public boolean isThrusting() {
+        return thrusting;
+    }
+
+    public int getColour() {
+        return colour;
+    }
+
     public boolean isShielding() {
         return shielding;
     }
 
+    public void setShielding(boolean shielding) {
+        this.shielding = shielding;
+    }
+
     public boolean isHit() {
         return hit;
     }
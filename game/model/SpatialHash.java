@@ -0,0 +1,114 @@
+package game.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static game.Constants.LEGACY_OVERLAP;
+
+/**
+ * Uniform spatial hash used as the broad phase of the collision pass.
+ * The world is split into cells at least as wide as the largest collision reach, so two objects can only overlap
+ * if they are in the same or in neighbouring cells. Neighbouring cells wrap around the world edges like Vector2D.wrap.
+ */
+public class SpatialHash {
+    private static final double SLACK = 16; //extra reach for objects that move after the grid has been built this tick
+
+    private final double worldWidth, worldHeight; //size of the hashed world
+    private int columns, rows; //number of cells in each dimension
+    private double cellWidth, cellHeight; //real size of a cell (world size divided evenly between the cells)
+    private List<List<GameObject>> cells; //objects in each cell by index, reused between ticks
+    private final int[] neighbours = new int[9]; //indexes of the cells around the queried one
+
+    public SpatialHash(double worldWidth, double worldHeight) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+
+    /**
+     * Clears the grid and puts every object into the cell holding its centre.
+     * The cell size is tuned from the largest radius so that neighbouring cells cover every possible collision.
+     *
+     * @param objects objects to be hashed
+     */
+    public void rebuild(Collection<GameObject> objects) {
+        double maxRadius = 0;
+        for (GameObject object : objects)
+            maxRadius = Math.max(maxRadius, object.sweptRadius()); //swept objects reach back along their way
+
+        //the legacy overlap is measured from the top-left corners, which can be a radius further away from the centres
+        resize((LEGACY_OVERLAP ? 3 : 2) * maxRadius + SLACK);
+        for (List<GameObject> cell : cells)
+            cell.clear();
+        for (GameObject object : objects)
+            cells.get(cellOf(object)).add(object);
+    }
+
+    /**
+     * Collects all objects from the cell of the given object and from the cells around it.
+     *
+     * @param object object to find collision candidates for
+     * @param out    list to be filled with the candidates (cleared first), never contains the object itself
+     *               nor objects of types it cannot interact with
+     */
+    public void candidates(GameObject object, List<GameObject> out) {
+        out.clear();
+        int cell = cellOf(object);
+        int column = cell % columns;
+        int row = cell / columns;
+
+        //gathers the 3x3 neighbourhood, skipping cells repeated because of wrapping on very small grids
+        int n = 0;
+        for (int dr = -1; dr <= 1; dr++) {
+            for (int dc = -1; dc <= 1; dc++) {
+                int index = wrap(row + dr, rows) * columns + wrap(column + dc, columns);
+                boolean repeated = false;
+                for (int i = 0; i < n && !repeated; i++)
+                    repeated = neighbours[i] == index;
+                if (!repeated)
+                    neighbours[n++] = index;
+            }
+        }
+
+        EntityType type = object.type();
+        for (int i = 0; i < n; i++)
+            for (GameObject other : cells.get(neighbours[i]))
+                if (other != object && EntityType.interacts(type, other.type()))
+                    out.add(other);
+    }
+
+    /**
+     * Recreates the cells if the reach changed enough to need a different number of them.
+     */
+    private void resize(double reach) {
+        int newColumns = Math.max(1, (int) (worldWidth / reach));
+        int newRows = Math.max(1, (int) (worldHeight / reach));
+        if (cells != null && newColumns == columns && newRows == rows)
+            return;
+
+        columns = newColumns;
+        rows = newRows;
+        cellWidth = worldWidth / columns;
+        cellHeight = worldHeight / rows;
+        cells = new ArrayList<>(columns * rows);
+        for (int i = 0; i < columns * rows; i++)
+            cells.add(new ArrayList<>());
+    }
+
+    /**
+     * @return index of the cell holding the centre of the object
+     */
+    private int cellOf(GameObject object) {
+        int column = Math.min(columns - 1, (int) (wrap(object.centreX(), worldWidth) / cellWidth));
+        int row = Math.min(rows - 1, (int) (wrap(object.centreY(), worldHeight) / cellHeight));
+        return row * columns + column;
+    }
+
+    private static int wrap(int i, int n) {
+        return (i % n + n) % n;
+    }
+
+    private static double wrap(double v, double size) {
+        return (v % size + size) % size;
+    }
+}
@@ -0,0 +1,94 @@
+package game.server;
+
+import game.ScoreTracker;
+import game.model.GameObject;
+import game.model.Ship;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Quantised state of all game objects at one tick. Kept by SnapshotHistory as a base the delta snapshots are made from.
+ * Objects are sorted by id so two frames can be compared with a single merge walk.
+ * Made by the thread running the game and never changed afterwards, so any thread can build snapshots from it:
+ * the objects sent whole are copies, made when an object first appears and kept by the next frames, never the
+ * objects the game goes on updating.
+ */
+class Frame {
+    final long id; //id of the snapshot made from this frame
+    final int size; //number of objects
+    final int[] ids; //sorted ids of the objects
+    final GameObject[] objects; //copies of the objects as they first appeared, sent whole when they are spawned
+
+    //quantised fields of the objects, see Snapshot for the scales
+    final int[] x, y;
+    final short[] vx, vy, dir;
+    final byte[] flags;
+
+    final ScoreTracker scoreTracker; //copy of the scores at the tick
+    final Snapshot.PlayerState[] players; //states of the players at the tick
+
+    /**
+     * @param id           id of the snapshot made from this frame
+     * @param sorted       objects sorted by their id
+     * @param previous     frame of the previous tick, its copies of the objects are kept, null if there is none
+     * @param scoreTracker copy of the scores
+     * @param players      states of the players
+     */
+    Frame(long id, List<GameObject> sorted, Frame previous, ScoreTracker scoreTracker, Snapshot.PlayerState[] players) {
+        this.id = id;
+        this.scoreTracker = scoreTracker;
+        this.players = players;
+        size = sorted.size();
+        ids = new int[size];
+        objects = new GameObject[size];
+        x = new int[size];
+        y = new int[size];
+        vx = new short[size];
+        vy = new short[size];
+        dir = new short[size];
+        flags = new byte[size];
+
+        int[] fresh = new int[size]; //indices of the objects not in the previous frame
+        int freshCount = 0;
+        for (int i = 0, j = 0; i < size; i++) {
+            GameObject o = sorted.get(i);
+            ids[i] = o.id;
+
+            //both frames are sorted by id - find the copy of the object in the previous one by merging
+            while (previous != null && j < previous.size && previous.ids[j] < o.id)
+                j++;
+            if (previous != null && j < previous.size && previous.ids[j] == o.id)
+                objects[i] = previous.objects[j];
+            else
+                fresh[freshCount++] = i;
+
+            x[i] = Snapshot.quantisePosition(o.position.x);
+            y[i] = Snapshot.quantisePosition(o.position.y);
+            vx[i] = Snapshot.quantiseVelocity(o.velocity.x);
+            vy[i] = Snapshot.quantiseVelocity(o.velocity.y);
+            dir[i] = o.direction == null ? 0 : Snapshot.quantiseAngle(o.direction.angle());
+            flags[i] = (byte) ((o.invincible ? Snapshot.INVINCIBLE : 0)
+                    | (o instanceof Ship && ((Ship) o).isShielding() ? Snapshot.SHIELDING : 0));
+        }
+        if (freshCount > 0)
+            copy(sorted, fresh, freshCount);
+    }
+
+    /**
+     * Copies the new objects together by serialising them, so objects referring to each other are copied once.
+     */
+    private void copy(List<GameObject> sorted, int[] fresh, int count) {
+        GameObject[] originals = new GameObject[count];
+        for (int k = 0; k < count; k++)
+            originals[k] = sorted.get(fresh[k]);
+        try {
+            byte[] bytes = WireProtocol.serialise(originals);
+            GameObject[] copies = (GameObject[]) WireProtocol.deserialise(bytes, 0, bytes.length);
+            for (int k = 0; k < count; k++)
+                objects[fresh[k]] = copies[k];
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Game objects could not be copied", e);
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package game.server;
 
-import game.controller.Action;
 import game.Difficulty;
-import game.Game;
 import game.Player;
 
 import java.rmi.Remote;
@@ -14,23 +12,45 @@ import java.rmi.RemoteException;
 public interface GameServer extends Remote {
 
     /**
-     * Starts a new game on the server.
+     * Creates a new room with its own game. Other rooms are not affected.
      * @param difficulty object representing the difficulty (number of asteroids and number of enemies) of the game to be started
+     * @return id of the new room
      */
-    void newGame(Difficulty difficulty) throws RemoteException;
+    int createRoom(Difficulty difficulty) throws RemoteException;
 
     /**
-     * Connects a new player (client) to the existing game.
+     * Finds a room with a free place, creating one if all are full.
+     * @return id of the room
+     */
+    int findRoom() throws RemoteException;
+
+    /**
+     * Connects a new player (client) to the game of a room.
+     * @param roomId id of the room
      * @param playerName nickname of the player to be connected
-     * @return Player object representing the new player connected to the game
+     * @return Player object representing the new player connected to the game, null if the room is full or does not exist
+     */
+    Player join(int roomId, String playerName) throws RemoteException;
+
+    /**
+     * Removes a player (client) from the game of a room, e.g. before he joins another one.
+     * @param roomId id of the room
+     * @param playerId id of the player connected to the game
      */
-    Player connect(String playerName) throws RemoteException;
+    void leave(int roomId, int playerId) throws RemoteException;
 
     /**
-     * Updates the game with an action made by the player (client).
+     * Updates the game of a room with an action made by the player (client).
+     * @param roomId id of the room
      * @param playerId id of the player connected to the game
-     * @param action action of the player
-     * @return updated game instance
+     * @param input action of the player packed by ActionCodec
+     * @param ackId id of the last snapshot applied by the client, -1 if none
+     * @return snapshot with the changes since the acknowledged one, null if the room does not exist any more
+     */
+    Snapshot update(int roomId, int playerId, long input, long ackId) throws RemoteException;
+
+    /**
+     * @return tick metrics of all rooms hosted by the server
      */
-    Game update(int playerId, Action action) throws RemoteException;
+    RoomInfo[] rooms() throws RemoteException;
 }
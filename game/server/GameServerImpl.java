@@ -1,63 +1,124 @@
 package game.server;
 
 import game.*;
-import game.controller.Action;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.rmi.*;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.server.*;
+import java.util.concurrent.*;
 
 /**
  * Remote object representing the game server. Methods are to be invoked by a remote Java Virtual Machine using RMI in RemoteGameClient.
  */
 public class GameServerImpl extends UnicastRemoteObject implements GameServer {
-    private Game game; // current instance of the game
+    public static final long JOIN_TIMEOUT_MILLIS = 5000; //time a join waits for the game of the room to add the player
+    private final RoomManager rooms = new RoomManager(); // games hosted by the server
 
     public GameServerImpl() throws RemoteException {
         super(Constants.SERVER_PORT);
     }
 
     /**
-     * Starts a new game on the server.
+     * Creates a new room with its own game. Other rooms are not affected.
      * @param difficulty object representing the difficulty (number of asteroids and number of enemies) of the game to be started
+     * @return id of the new room, -1 if the difficulty is out of the limits or the server hosts too many rooms
      */
     @Override
-    public void newGame(Difficulty difficulty) throws RemoteException {
-        ScoreTracker scoreTracker = new ScoreTracker(difficulty.getRoundTime());
-        game = new Game(scoreTracker);
-        game.init();
-        new Thread(game).start();
-        System.out.println("The game has started!");
+    public int createRoom(Difficulty difficulty) throws RemoteException {
+        Room room = rooms.create(difficulty);
+        return room == null ? -1 : room.getId();
     }
 
     /**
-     * Connects a new player (client) to the existing game.
+     * Finds a room with a free place, creating one if all are full.
+     * @return id of the room, -1 if the server hosts too many rooms
+     */
+    @Override
+    public int findRoom() throws RemoteException {
+        Room room = rooms.findOpen();
+        return room == null ? -1 : room.getId();
+    }
+
+    /**
+     * Connects a new player (client) to the game of a room.
+     * @param roomId id of the room
      * @param playerName nickname of the player to be connected
-     * @return Player object representing the new player connected to the game
+     * @return Player object representing the new player connected to the game, null if the room is full or does not
+     * exist, or its game has not added the player in JOIN_TIMEOUT_MILLIS
      */
     @Override
-    public Player connect(String playerName) throws RemoteException {
-        if (game == null)
-            newGame(Constants.DEFAULT_DIFFICULTY);
-        return game.newPlayer(playerName);
+    public Player join(int roomId, String playerName) throws RemoteException {
+        Room room = rooms.get(roomId);
+        if (room == null)
+            return null;
+        Future<Player> player = room.join(playerName);
+        try {
+            return player.get(JOIN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | CancellationException e) {
+            player.cancel(false); //not added later if it has timed out
+        }
+        return null;
     }
 
     /**
-     * Updates the game with an action made by the player (client).
+     * Removes a player (client) from the game of a room, e.g. before he joins another one.
+     * @param roomId id of the room
      * @param playerId id of the player connected to the game
-     * @param action action of the player
-     * @return updated Game instance
      */
     @Override
-    public Game update(int playerId, Action action) throws RemoteException {
-        return game.doAction(playerId, action);
+    public void leave(int roomId, int playerId) throws RemoteException {
+        Room room = rooms.get(roomId);
+        if (room != null && playerId >= 0 && playerId < Constants.MAX_PLAYER_NUMBER)
+            room.leave(playerId);
+    }
+
+    /**
+     * Updates the game of a room with an action made by the player (client).
+     * @param roomId id of the room
+     * @param playerId id of the player connected to the game
+     * @param input action of the player packed by ActionCodec
+     * @param ackId id of the last snapshot applied by the client, -1 if none
+     * @return snapshot with the changes since the acknowledged one, null if the room does not exist any more
+     */
+    @Override
+    public Snapshot update(int roomId, int playerId, long input, long ackId) throws RemoteException {
+        Room room = rooms.get(roomId);
+        if (room == null)
+            return null;
+        room.input(playerId, input);
+        return room.delta(ackId);
+    }
+
+    /**
+     * @return tick metrics of all rooms hosted by the server
+     */
+    @Override
+    public RoomInfo[] rooms() throws RemoteException {
+        return rooms.getInfo();
     }
 
     /**
      * Main method to be invoked by the remote server.
      */
     public static void main(String[] args) {
+        if (System.getProperty("asteroids.headless") == null)
+            System.setProperty("asteroids.headless", "true"); // the server never draws the game, must be set before Constants is used
+
+        if (Constants.TRANSPORT.equals("nio")) {
+            try {
+                NioGameServer server = new NioGameServer(Constants.NIO_PORT);
+                System.out.println("The server has started!");
+                server.run();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+
         try {
             System.setProperty("java.rmi.server.hostname", Constants.SERVER_IP); // set virtual machine variable to server IP
             GameServer gs = new GameServerImpl();
@@ -0,0 +1,351 @@
+package game.server;
+
+import game.*;
+import game.controller.Action;
+import game.controller.ActionCodec;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Game server transport built on non-blocking java.nio channels and a single selector thread.
+ * Unlike the RMI server, clients do not ask for the state: after every simulation step the server pushes a delta
+ * snapshot to every connected client, and inputs (actions) from the clients are received asynchronously.
+ * Snapshots are relative to the last snapshot sent to the client; TCP delivers them in order, so no round trip is
+ * needed. A client which has not taken the previous snapshot yet skips a tick and gets a larger delta later.
+ * The games are hosted in the rooms of a RoomManager; a client asking for a new game is moved to a new room alone.
+ * When a room is torn down its clients are told and stay connected, so they can join another room from the lobby.
+ */
+public class NioGameServer implements Runnable {
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final AtomicBoolean tickPending = new AtomicBoolean(); //set by the room workers after every step
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>(); //work handed to the selector thread by other threads
+    private final List<Connection> connections = new ArrayList<>();
+    private final RoomManager rooms = new RoomManager(); //games hosted by the server
+    private volatile boolean running = true;
+
+    /**
+     * State of a single connected client.
+     */
+    private static class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(4096); //bytes received but not parsed yet
+        final Deque<ByteBuffer> out = new ArrayDeque<>(); //messages waiting to be written, the first may be partly written
+        String name; //nickname of the player
+        Room room; //room the player has joined, null before HELLO and after the room has been torn down
+        CompletableFuture<Player> joining; //join not finished yet, null if none
+        int playerId = -1; //id of the player in the game of the room, -1 before HELLO
+        long lastSent = -1; //id of the last snapshot sent, the base of the next one (TCP delivers them all, in order)
+        long lastTick = -1; //tick of the game the last snapshot was sent at
+        final Action action = new Action(); //inputs of the player, overwritten by every INPUT message
+        int inputSequence; //sequence number of the last input applied
+        boolean hasInput; //an input has been applied in the current room, the first one is taken whatever its number
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Opens the server socket.
+     * @param port port to listen on, 0 for any free port
+     */
+    public NioGameServer(int port) throws IOException {
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port));
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        rooms.setTickListener(() -> {
+            if (!tickPending.getAndSet(true))
+                selector.wakeup();
+        });
+        rooms.setTeardownListener(room -> {
+            tasks.add(() -> closed(room));
+            selector.wakeup();
+        });
+    }
+
+    /**
+     * @return port the server listens on
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * @return rooms hosted by the server
+     */
+    public RoomManager getRooms() {
+        return rooms;
+    }
+
+    /**
+     * Leaves the room the player of the connection is in, then asks the game of the new room to add him. The game
+     * adds him at its next step, then the selector thread finishes the join (see joined). Nothing is sent to the
+     * client in the meantime.
+     * @param room room to join, null if no room could be made (the connection is closed)
+     */
+    private void join(Connection c, Room room) {
+        leave(c);
+        if (room == null) {
+            close(c);
+            return;
+        }
+        CompletableFuture<Player> joining = c.joining = room.join(c.name);
+        joining.whenComplete((player, e) -> {
+            tasks.add(() -> joined(c, room, joining, e == null ? player : null));
+            selector.wakeup();
+        });
+    }
+
+    /**
+     * Finishes the join on the selector thread and sends the player the WELCOME message.
+     * @param joining join being finished
+     * @param player  player added to the game of the room, null if the room is full or its game has stopped
+     */
+    private void joined(Connection c, Room room, CompletableFuture<Player> joining, Player player) {
+        if (joining != c.joining) { //the client has left, or asked for another room, in the meantime
+            if (player != null)
+                room.leave(player.getId());
+            return;
+        }
+        c.joining = null;
+        if (player == null) {
+            close(c);
+            return;
+        }
+        c.room = room;
+        c.playerId = player.getId();
+        c.lastSent = -1;
+        c.lastTick = -1;
+        c.hasInput = false;
+        room.getGame().doAction(c.playerId, c.action);
+        try {
+            send(c, WireProtocol.message(WireProtocol.WELCOME, WireProtocol.serialise(player)));
+        } catch (IOException e) {
+            close(c);
+        }
+    }
+
+    /**
+     * Takes the clients of a room which has been torn down out of it and sends them the ROOM_CLOSED message,
+     * so they go back to the lobby instead of waiting for snapshots which will never come.
+     * @param room room torn down
+     */
+    private void closed(Room room) {
+        for (Connection c : new ArrayList<>(connections)) {
+            if (c.room != room)
+                continue;
+            c.room = null;
+            c.playerId = -1;
+            send(c, WireProtocol.message(WireProtocol.ROOM_CLOSED, new byte[0]));
+        }
+    }
+
+    /**
+     * Removes the player of the connection from his room, or gives up the join not finished yet.
+     */
+    private void leave(Connection c) {
+        if (c.joining != null)
+            c.joining.cancel(false); //if it has completed already, joined removes the player
+        c.joining = null;
+        if (c.room != null)
+            c.room.leave(c.playerId);
+        c.room = null;
+        c.playerId = -1;
+    }
+
+    /**
+     * Selector loop. Accepts clients, reads their messages and broadcasts a snapshot after every simulation step.
+     */
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable())
+                        accept();
+                    else {
+                        Connection c = (Connection) key.attachment();
+                        if (key.isReadable())
+                            read(c);
+                        if (key.isValid() && key.isWritable())
+                            flush(c);
+                    }
+                }
+
+                Runnable task;
+                while ((task = tasks.poll()) != null)
+                    task.run();
+                if (tickPending.getAndSet(false))
+                    broadcast();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            rooms.shutdown();
+        }
+    }
+
+    /**
+     * Stops the selector loop and the games of all rooms.
+     */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = serverChannel.accept();
+        if (channel == null)
+            return;
+        channel.configureBlocking(false);
+        channel.socket().setTcpNoDelay(true);
+        Connection c = new Connection(channel);
+        channel.register(selector, SelectionKey.OP_READ, c);
+        connections.add(c);
+    }
+
+    /**
+     * Reads everything available from the client and handles all complete messages.
+     */
+    private void read(Connection c) {
+        try {
+            if (c.channel.read(c.in) < 0) {
+                close(c);
+                return;
+            }
+            c.in.flip();
+            while (c.in.remaining() >= 4) {
+                int length = c.in.getInt(c.in.position());
+                if (length <= 0 || length > c.in.capacity() - 4)
+                    throw new IOException("Malformed message of length " + length);
+                if (c.in.remaining() < 4 + length)
+                    break;
+                c.in.getInt();
+                byte type = c.in.get();
+                int start = c.in.position();
+                handle(c, type, length - 1);
+                c.in.position(start + length - 1);
+            }
+            c.in.compact();
+        } catch (IOException | ClassNotFoundException | RuntimeException e) { //a malformed message closes its connection only
+            close(c);
+        }
+    }
+
+    /**
+     * Handles a single message. The payload starts at the current position of the input buffer.
+     */
+    private void handle(Connection c, byte type, int length) throws IOException, ClassNotFoundException {
+        ByteBuffer in = c.in;
+        switch (type) {
+            case WireProtocol.HELLO:
+                byte[] name = new byte[length];
+                in.get(name);
+                if (c.name != null) //joined already, a new room is asked for with NEW_GAME
+                    break;
+                c.name = new String(name, "UTF-8");
+                join(c, rooms.findOpen());
+                break;
+            case WireProtocol.INPUT:
+                if (c.playerId < 0 || length != ActionCodec.SIZE)
+                    break;
+                if (!c.hasInput || ActionCodec.isNewer(ActionCodec.sequence(in), c.inputSequence)) { //ignore stale or repeated inputs
+                    c.inputSequence = ActionCodec.decode(in, c.action); //the action is shared with the game, no copy is needed
+                    c.hasInput = true;
+                }
+                c.room.touch();
+                break;
+            case WireProtocol.NEW_GAME:
+                if (length != 12)
+                    throw new IOException("Malformed NEW_GAME of length " + length);
+                Difficulty difficulty = new Difficulty(in.getInt(), in.getInt(), in.getInt());
+                if (c.name != null)
+                    join(c, rooms.create(difficulty)); //refused (closed) if out of the limits or too many rooms
+                break;
+            case WireProtocol.JOIN:
+                if (length != 0)
+                    throw new IOException("Malformed JOIN of length " + length);
+                if (c.name != null && c.room == null && c.joining == null) //only from the lobby, after the room has been torn down
+                    join(c, rooms.findOpen());
+                break;
+            default:
+                throw new IOException("Unknown message type " + type);
+        }
+    }
+
+    /**
+     * Sends a snapshot to every client whose room has moved since the last one, if the client has already
+     * taken the previous message.
+     */
+    private void broadcast() {
+        for (Connection c : new ArrayList<>(connections)) {
+            if (c.room == null || !c.out.isEmpty())
+                continue;
+            long tick = c.room.getPublishedTick();
+            if (tick == c.lastTick)
+                continue;
+            try {
+                c.lastTick = tick;
+                Snapshot snapshot = c.room.delta(c.lastSent);
+                c.lastSent = snapshot.getId();
+                send(c, WireProtocol.message(WireProtocol.SNAPSHOT, WireProtocol.serialise(snapshot)));
+            } catch (IOException | RuntimeException e) {
+                close(c);
+            }
+        }
+    }
+
+    /**
+     * Queues the message and writes as much as the socket takes now; the rest is written when the socket is writable.
+     */
+    private void send(Connection c, ByteBuffer message) {
+        c.out.add(message);
+        flush(c);
+    }
+
+    private void flush(Connection c) {
+        try {
+            while (!c.out.isEmpty()) {
+                c.channel.write(c.out.peek());
+                if (c.out.peek().hasRemaining())
+                    break;
+                c.out.poll();
+            }
+            SelectionKey key = c.channel.keyFor(selector);
+            key.interestOps(c.out.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            close(c);
+        }
+    }
+
+    private void close(Connection c) {
+        leave(c);
+        connections.remove(c);
+        try {
+            c.channel.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
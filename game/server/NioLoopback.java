@@ -0,0 +1,90 @@
+package game.server;
+
+import game.Constants;
+import game.Player;
+import game.client.GameReplica;
+import game.client.NioConnection;
+import game.controller.Action;
+import utilities.SeededRandom;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs NioGameServer with a number of headless clients on the loopback interface and prints how many snapshots
+ * they received. Used to check the transport without starting a window.
+ * The first clients ask for new games, so the players are spread over the given number of rooms.
+ * Usage: java game.server.NioLoopback [clients] [seconds] [rooms]
+ */
+public class NioLoopback {
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("asteroids.headless", "true");
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int rooms = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        NioGameServer server = new NioGameServer(0);
+        Thread serverThread = new Thread(server);
+        serverThread.start();
+
+        NioConnection[] connections = new NioConnection[clients];
+        AtomicLong snapshots = new AtomicLong();
+        for (int i = 0; i < clients; i++) {
+            NioConnection connection = new NioConnection("localhost", server.getPort());
+            connection.hello("bot" + i);
+            connections[i] = connection;
+
+            Thread receiver = new Thread(() -> {
+                try {
+                    GameReplica replica = null;
+                    while (true) {
+                        Object message = connection.read();
+                        if (message instanceof Player)
+                            replica = new GameReplica((Player) message);
+                        else if (replica != null && message instanceof Snapshot) {
+                            replica.apply((Snapshot) message);
+                            snapshots.incrementAndGet();
+                        }
+                    }
+                } catch (IOException | ClassNotFoundException e) {
+                    //connection closed
+                }
+            });
+            receiver.setDaemon(true);
+            receiver.start();
+        }
+
+        for (int i = 0; i < rooms - 1 && i < clients; i++)
+            connections[i].newGame(Constants.DEFAULT_DIFFICULTY);
+
+        SeededRandom random = new SeededRandom(SeededRandom.randomSeed());
+        Action action = new Action();
+        long end = System.currentTimeMillis() + seconds * 1000L;
+        while (System.currentTimeMillis() < end) {
+            for (int i = 0; i < clients; i++) {
+                action.turn = random.nextInt(3) - 1;
+                action.thrust = random.nextInt(2);
+                action.shoot = random.nextBoolean();
+                connections[i].sendInput(action);
+            }
+            Thread.sleep(Constants.DELAY);
+        }
+
+        for (RoomInfo info : server.getRooms().getInfo())
+            System.out.println(info);
+
+        long bytes = 0;
+        for (NioConnection connection : connections) {
+            bytes += connection.getBytesRead();
+            connection.close();
+        }
+        server.stop();
+        serverThread.join();
+
+        System.out.println("clients: " + clients + ", seconds: " + seconds);
+        System.out.println("snapshots received: " + snapshots.get() + " (" + snapshots.get() / (clients * seconds) + " per client per second)");
+        System.out.println("bytes received: " + bytes + " (" + (snapshots.get() == 0 ? 0 : bytes / snapshots.get()) + " per snapshot)");
+        System.exit(0);
+    }
+}
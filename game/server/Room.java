@@ -0,0 +1,189 @@
+package game.server;
+
+import game.*;
+import game.controller.Action;
+import game.controller.ActionCodec;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Single match hosted by the RoomManager: a game, the snapshots sent to its players and the tick metrics.
+ * The game is advanced by a worker of the manager, never by more than one thread at a time.
+ */
+public class Room {
+    private final int id; //id of the room
+    private final Game game; //game played in the room
+    private final SnapshotHistory history; //snapshots of the game sent to the players
+    private final Action[] actions = new Action[Constants.MAX_PLAYER_NUMBER]; //actions of the players, overwritten by every input
+    private final int[] inputSequences = new int[Constants.MAX_PLAYER_NUMBER]; //sequence numbers of the last inputs applied
+    ScheduledFuture<?> task; //periodic task advancing the game
+    volatile Runnable tickListener; //called after the game has moved and its state has been published
+
+    //metrics, written by the worker advancing the game only
+    private volatile long busyNanos; //time spent in the simulation steps
+    private volatile long maxStepNanos; //longest simulation step
+    private volatile long lastActivity = System.currentTimeMillis(); //time of the last join or input
+    private volatile long finishedAt; //time when the round has ended, 0 while it is played
+
+    Room(int id, Difficulty difficulty) {
+        this.id = id;
+        game = new Game(new ScoreTracker(difficulty.getRoundTime()), difficulty);
+        game.init();
+        history = new SnapshotHistory(game);
+        history.publish();
+    }
+
+    /**
+     * Runs the simulation steps due now. Called periodically by a worker of the manager.
+     */
+    void tick() {
+        if (!game.isOn()) {
+            if (finishedAt == 0)
+                finishedAt = System.currentTimeMillis();
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            int steps = game.advance(start);
+            if (steps > 0) {
+                history.publish(); //the snapshots are made from the published state only
+                long took = System.nanoTime() - start;
+                busyNanos += took;
+                maxStepNanos = Math.max(maxStepNanos, took / steps);
+                Runnable listener = tickListener;
+                if (listener != null)
+                    listener.run();
+            }
+        } catch (RuntimeException e) { //keep the task scheduled, an exception would cancel it
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Adds a new player to the game of the room. The player is added by the worker advancing the game at its next
+     * step, and copied there, so the copy can be sent to the client while the game goes on.
+     * @param playerName nickname of the player
+     * @return future of the copy of the new player, completed with null if the room is full
+     */
+    public CompletableFuture<Player> join(String playerName) {
+        touch();
+        return game.submit(() -> copy(game.newPlayer(playerName)));
+    }
+
+    private static Player copy(Player player) {
+        if (player == null)
+            return null;
+        try {
+            byte[] bytes = WireProtocol.serialise(player);
+            return (Player) WireProtocol.deserialise(bytes, 0, bytes.length);
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("Player could not be copied", e);
+        }
+    }
+
+    /**
+     * Removes a player who has left the room (e.g. for another one). His ship is removed by the worker advancing
+     * the game at its next step, and his place can be taken by another player.
+     * @param playerId id of the player
+     */
+    public synchronized void leave(int playerId) {
+        actions[playerId] = null;
+        inputSequences[playerId] = 0;
+        game.submit(() -> {
+            game.removePlayer(playerId);
+            return null;
+        });
+    }
+
+    /**
+     * Applies an input of a player. Inputs which are not newer than the last one applied are ignored, except
+     * the first one of the player in this room: the client keeps counting from its previous room.
+     * @param playerId id of the player
+     * @param input    action of the player packed by ActionCodec
+     */
+    public synchronized void input(int playerId, long input) {
+        touch();
+        if (actions[playerId] == null) {
+            actions[playerId] = new Action();
+            game.doAction(playerId, actions[playerId]);
+            inputSequences[playerId] = ActionCodec.unpack(input, actions[playerId]);
+        } else if (ActionCodec.isNewer(ActionCodec.sequence(input), inputSequences[playerId])) {
+            inputSequences[playerId] = ActionCodec.unpack(input, actions[playerId]);
+        }
+    }
+
+    /**
+     * @return tick of the game the latest snapshots are made at
+     */
+    public long getPublishedTick() {
+        return history.getTick();
+    }
+
+    /**
+     * @param ackId id of the last snapshot the player has applied, -1 if none
+     * @return snapshot with the changes since the snapshot acknowledged by the player
+     */
+    public Snapshot delta(long ackId) {
+        return history.delta(ackId);
+    }
+
+    /**
+     * Records activity of the players, rooms without activity are torn down.
+     */
+    void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * @return number of players who joined the room
+     */
+    public int getPlayerCount() {
+        int count = 0;
+        for (Player p : game.getPlayers())
+            if (p != null)
+                count++;
+        return count;
+    }
+
+    /**
+     * @return true if another player can join the room
+     */
+    public boolean isOpen() {
+        return game.isOn() && getPlayerCount() < Constants.MAX_PLAYER_NUMBER;
+    }
+
+    long getLastActivity() {
+        return lastActivity;
+    }
+
+    long getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * @return tick metrics of the room
+     */
+    public RoomInfo getInfo() {
+        RoomInfo info = new RoomInfo();
+        info.id = id;
+        info.players = getPlayerCount();
+        info.objects = game.objects.size();
+        info.ticks = game.getTick();
+        info.meanStepMicros = info.ticks == 0 ? 0 : busyNanos / 1000.0 / info.ticks;
+        info.maxStepMicros = maxStepNanos / 1000.0;
+        info.lagMillis = game.getTickLagMillis();
+        info.droppedTicks = game.getDroppedTicks();
+        info.timeLeft = game.getScoreTracker().getTimeLeft();
+        return info;
+    }
+}
@@ -0,0 +1,24 @@
+package game.server;
+
+import java.io.Serializable;
+
+/**
+ * Tick metrics of a room, sent to the clients listing the rooms of the server.
+ */
+public class RoomInfo implements Serializable {
+    public int id; //id of the room
+    public int players; //number of players who joined the room
+    public int objects; //number of game objects
+    public long ticks; //number of simulation steps run
+    public double meanStepMicros; //mean duration of a simulation step
+    public double maxStepMicros; //longest simulation step
+    public double lagMillis; //how far behind real time the room was after its last step
+    public long droppedTicks; //steps dropped because the room could not catch up with real time
+    public long timeLeft; //seconds left to the end of the round
+
+    @Override
+    public String toString() {
+        return String.format("room %d: %d players, %d objects, %d ticks, step %.1f us (max %.1f us), lag %.2f ms, dropped %d, %d s left",
+                id, players, objects, ticks, meanStepMicros, maxStepMicros, lagMillis, droppedTicks, timeLeft);
+    }
+}
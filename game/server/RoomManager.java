@@ -0,0 +1,153 @@
+package game.server;
+
+import game.Constants;
+import game.Difficulty;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hosts many independent games (rooms) on one server. Rooms are advanced by a bounded pool of workers,
+ * sized to the number of cores by default, instead of a thread per game. Rooms whose round has ended,
+ * or which nobody plays any more, are torn down after LINGER_MILLIS.
+ */
+public class RoomManager {
+    public static final long LINGER_MILLIS = 30_000; //time a finished or abandoned room is kept for
+    public static final int MAX_ROOMS = 64; //rooms hosted at once, clients asking for more are refused
+
+    private final ScheduledExecutorService workers; //advance the games of the rooms
+    private final Map<Integer, Room> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private volatile Runnable tickListener; //set on all rooms
+    private volatile Consumer<Room> teardownListener; //called after a room has been torn down
+
+    public RoomManager() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads number of workers advancing the rooms
+     */
+    public RoomManager(int threads) {
+        AtomicInteger workerId = new AtomicInteger();
+        workers = Executors.newScheduledThreadPool(threads, r -> {
+            Thread t = new Thread(r, "room-worker-" + workerId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        workers.scheduleWithFixedDelay(this::reap, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Sets the listener called by all rooms after their game has moved and its state has been published.
+     * @param tickListener listener to be called on the worker advancing the room
+     */
+    public void setTickListener(Runnable tickListener) {
+        this.tickListener = tickListener;
+        for (Room room : rooms.values())
+            room.tickListener = tickListener;
+    }
+
+    /**
+     * Sets the listener called after a room has been torn down, so the players still in it can be told.
+     * @param teardownListener listener to be called with the room on the thread tearing it down
+     */
+    public void setTeardownListener(Consumer<Room> teardownListener) {
+        this.teardownListener = teardownListener;
+    }
+
+    /**
+     * Creates a new room and starts its game.
+     * @param difficulty difficulty of the game
+     * @return the new room, null if the difficulty is out of the limits or MAX_ROOMS are hosted already
+     */
+    public synchronized Room create(Difficulty difficulty) {
+        if (difficulty == null || !difficulty.isValid() || rooms.size() >= MAX_ROOMS)
+            return null;
+        Room room = new Room(nextId.getAndIncrement(), difficulty);
+        room.tickListener = tickListener;
+        rooms.put(room.getId(), room);
+        room.getGame().start(System.nanoTime());
+        room.task = workers.scheduleAtFixedRate(room::tick, 0, Constants.STEP_NANOS, TimeUnit.NANOSECONDS);
+        System.out.println("Room " + room.getId() + " has started!");
+        return room;
+    }
+
+    /**
+     * @return room with the given id, null if there is no such room
+     */
+    public Room get(int roomId) {
+        return rooms.get(roomId);
+    }
+
+    /**
+     * Finds a room another player can join, creating one with the default difficulty if all are full.
+     * @return room with a free place, null if all are full and no more rooms can be hosted
+     */
+    public synchronized Room findOpen() {
+        for (Room room : rooms.values())
+            if (room.isOpen())
+                return room;
+        return create(Constants.DEFAULT_DIFFICULTY);
+    }
+
+    /**
+     * Stops the game of the room and removes it.
+     * @param roomId id of the room
+     * @return true if the room existed
+     */
+    public boolean teardown(int roomId) {
+        Room room = rooms.remove(roomId);
+        if (room == null)
+            return false;
+        room.task.cancel(false);
+        room.getGame().stop();
+        room.tickListener = null;
+        System.out.println("Room " + roomId + " has been torn down.");
+        Consumer<Room> listener = teardownListener;
+        if (listener != null)
+            listener.accept(room);
+        return true;
+    }
+
+    /**
+     * @return all rooms hosted at the moment
+     */
+    public Collection<Room> getRooms() {
+        return rooms.values();
+    }
+
+    /**
+     * @return tick metrics of all rooms
+     */
+    public RoomInfo[] getInfo() {
+        return rooms.values().stream().map(Room::getInfo).toArray(RoomInfo[]::new);
+    }
+
+    /**
+     * Tears down all rooms and stops the workers.
+     */
+    public void shutdown() {
+        for (Integer roomId : rooms.keySet())
+            teardown(roomId);
+        workers.shutdown();
+    }
+
+    /**
+     * Tears down the rooms whose round has ended and the rooms nobody has played for LINGER_MILLIS.
+     */
+    private void reap() {
+        long now = System.currentTimeMillis();
+        for (Room room : rooms.values()) {
+            long finishedAt = room.getFinishedAt();
+            if ((finishedAt != 0 && now - finishedAt > LINGER_MILLIS) || now - room.getLastActivity() > LINGER_MILLIS)
+                teardown(room.getId());
+        }
+    }
+}
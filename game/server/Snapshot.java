@@ -0,0 +1,227 @@
+package game.server;
+
+import game.Player;
+import game.ScoreTracker;
+import game.model.GameObject;
+import game.model.PlayerShip;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Delta snapshot of the game sent from the server to a client. Holds only what changed since the snapshot
+ * the client acknowledged last: objects spawned (sent whole, once), ids of objects despawned and the changed
+ * fields of the other objects, quantised. The objects are sent as they first appeared, so all the fields of a
+ * spawned object are sent as changes too. Scores and player states are small and always sent.
+ * Implements Serializable so it can be sent over RMI.
+ */
+public class Snapshot implements Serializable {
+    //bits of the change mask of an object
+    public static final int POSITION = 1, VELOCITY = 2, DIRECTION = 4, FLAGS = 8;
+    //bits of the flags field
+    public static final int INVINCIBLE = 1, SHIELDING = 2;
+
+    private static final double POSITION_SCALE = 8; //positions are sent in 1/8 of a unit
+    private static final double VELOCITY_SCALE = 4; //velocities are sent in 1/4 of a unit per second
+    private static final double ANGLE_SCALE = Short.MAX_VALUE / Math.PI; //angles use the whole short range
+
+    private final long id; //id of this snapshot, to be acknowledged by the client
+    private final long baseId; //id of the snapshot this one is relative to, -1 if it is a full snapshot
+
+    private final GameObject[] spawns; //objects new to the client
+    private final int[] despawns; //ids of objects removed since the base
+
+    //changed objects: id and change mask of each, then only the changed fields in the same order
+    private final int[] ids;
+    private final byte[] masks;
+    private final int[] x, y;
+    private final short[] vx, vy, dir;
+    private final byte[] flags;
+
+    private final ScoreTracker scoreTracker; //scores of the game
+    private final PlayerState[] players; //state of all the players
+
+    /**
+     * Builds a delta snapshot between two frames.
+     *
+     * @param base         frame acknowledged by the client, null if the client needs a full snapshot
+     * @param current      frame of the current tick
+     * @param scoreTracker scores of the game
+     * @param players      state of all the players
+     */
+    Snapshot(Frame base, Frame current, ScoreTracker scoreTracker, PlayerState[] players) {
+        this.id = current.id;
+        this.baseId = base == null ? -1 : base.id;
+        this.scoreTracker = scoreTracker;
+        this.players = players;
+
+        List<GameObject> spawned = new ArrayList<>();
+        int[] despawned = new int[base == null ? 0 : base.size];
+        int despawnCount = 0;
+
+        int n = current.size;
+        int[] changedIds = new int[n];
+        byte[] changedMasks = new byte[n];
+        int[] px = new int[n], py = new int[n];
+        short[] pvx = new short[n], pvy = new short[n], pdir = new short[n];
+        byte[] pflags = new byte[n];
+        int changes = 0, positions = 0, velocities = 0, directions = 0, flagChanges = 0;
+
+        //merge walk over the two sorted id arrays
+        int i = 0, j = 0;
+        int baseSize = base == null ? 0 : base.size;
+        while (i < baseSize || j < n) {
+            if (j >= n || (i < baseSize && base.ids[i] < current.ids[j])) { //only in base - removed
+                despawned[despawnCount++] = base.ids[i++];
+            } else {
+                boolean spawn = i >= baseSize || current.ids[j] < base.ids[i]; //only in current - new
+                if (spawn)
+                    spawned.add(current.objects[j]);
+                //in both - send the fields which changed, new - send them all
+                int mask = 0;
+                if (spawn || base.x[i] != current.x[j] || base.y[i] != current.y[j]) {
+                    mask |= POSITION;
+                    px[positions] = current.x[j];
+                    py[positions++] = current.y[j];
+                }
+                if (spawn || base.vx[i] != current.vx[j] || base.vy[i] != current.vy[j]) {
+                    mask |= VELOCITY;
+                    pvx[velocities] = current.vx[j];
+                    pvy[velocities++] = current.vy[j];
+                }
+                if (spawn || base.dir[i] != current.dir[j]) {
+                    mask |= DIRECTION;
+                    pdir[directions++] = current.dir[j];
+                }
+                if (spawn || base.flags[i] != current.flags[j]) {
+                    mask |= FLAGS;
+                    pflags[flagChanges++] = current.flags[j];
+                }
+                if (mask != 0) {
+                    changedIds[changes] = current.ids[j];
+                    changedMasks[changes++] = (byte) mask;
+                }
+                if (!spawn)
+                    i++;
+                j++;
+            }
+        }
+
+        spawns = spawned.toArray(new GameObject[0]);
+        despawns = Arrays.copyOf(despawned, despawnCount);
+        ids = Arrays.copyOf(changedIds, changes);
+        masks = Arrays.copyOf(changedMasks, changes);
+        x = Arrays.copyOf(px, positions);
+        y = Arrays.copyOf(py, positions);
+        vx = Arrays.copyOf(pvx, velocities);
+        vy = Arrays.copyOf(pvy, velocities);
+        dir = Arrays.copyOf(pdir, directions);
+        flags = Arrays.copyOf(pflags, flagChanges);
+    }
+
+    /**
+     * Visitor used by the client to apply the changed fields.
+     */
+    public interface Changes {
+        void position(int id, double x, double y);
+
+        void velocity(int id, double vx, double vy);
+
+        void direction(int id, double angle);
+
+        void flags(int id, int flags);
+    }
+
+    /**
+     * Passes all changed fields to the visitor, dequantised.
+     *
+     * @param changes visitor receiving the fields
+     */
+    public void forEachChange(Changes changes) {
+        int positions = 0, velocities = 0, directions = 0, flagChanges = 0;
+        for (int i = 0; i < ids.length; i++) {
+            int mask = masks[i];
+            if ((mask & POSITION) != 0) {
+                changes.position(ids[i], x[positions] / POSITION_SCALE, y[positions] / POSITION_SCALE);
+                positions++;
+            }
+            if ((mask & VELOCITY) != 0) {
+                changes.velocity(ids[i], vx[velocities] / VELOCITY_SCALE, vy[velocities] / VELOCITY_SCALE);
+                velocities++;
+            }
+            if ((mask & DIRECTION) != 0)
+                changes.direction(ids[i], dir[directions++] / ANGLE_SCALE);
+            if ((mask & FLAGS) != 0)
+                changes.flags(ids[i], flags[flagChanges++]);
+        }
+    }
+
+    static int quantisePosition(double v) {
+        return (int) Math.round(v * POSITION_SCALE);
+    }
+
+    static short quantiseVelocity(double v) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(v * VELOCITY_SCALE)));
+    }
+
+    static short quantiseAngle(double angle) {
+        return (short) Math.round(angle * ANGLE_SCALE);
+    }
+
+    /**
+     * Getters.
+     */
+
+    public long getId() {
+        return id;
+    }
+
+    public long getBaseId() {
+        return baseId;
+    }
+
+    public boolean isFull() {
+        return baseId == -1;
+    }
+
+    public GameObject[] getSpawns() {
+        return spawns;
+    }
+
+    public int[] getDespawns() {
+        return despawns;
+    }
+
+    public ScoreTracker getScoreTracker() {
+        return scoreTracker;
+    }
+
+    public PlayerState[] getPlayers() {
+        return players;
+    }
+
+    /**
+     * State of a player and his ship which is not part of the object fields.
+     */
+    public static class PlayerState implements Serializable {
+        public final int id, shipId, lives, shield, maxPods;
+        public final String name;
+        public final boolean dead, respawning;
+        public final long respawnTime;
+
+        PlayerState(Player player) {
+            PlayerShip ship = player.getShip();
+            id = player.getId();
+            name = player.getName();
+            lives = player.getLives();
+            dead = player.isDead();
+            shipId = ship.id;
+            shield = ship.getShield();
+            maxPods = ship.maxPods;
+            respawning = ship.getRespawning();
+            respawnTime = ship.respawnTime;
+        }
+    }
+}
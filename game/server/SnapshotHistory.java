@@ -0,0 +1,84 @@
+package game.server;
+
+import game.Game;
+import game.Player;
+import game.model.GameObject;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps quantised frames of the last ticks of a game and builds delta snapshots from the frame a client
+ * acknowledged to the current one.
+ * Frames are made by the thread running the game (publish) and published by swapping references, so the
+ * threads sending the snapshots never read the game while it is updated, and never block it nor each other.
+ * Snapshot ids hold a random session number in the upper half, so acknowledgements of snapshots from
+ * another game (e.g. after a new game has been started) are never mistaken for frames of this one.
+ */
+public class SnapshotHistory {
+    private static final int HISTORY = 64; //number of frames kept, older acknowledgements get a full snapshot
+
+    private final Game game; //game the snapshots are made of
+    private final long session; //random number identifying this history
+    private final AtomicReferenceArray<Frame> frames = new AtomicReferenceArray<>(HISTORY); //last frames, indexed by tick
+    private volatile Frame latest; //frame of the latest tick published
+
+    public SnapshotHistory(Game game) {
+        this.game = game;
+        session = (new Random().nextInt() & 0x7fffffffL) << 32;
+    }
+
+    /**
+     * Builds the snapshot a client needs to get to the current tick. Can be called by any thread.
+     *
+     * @param ackId id of the last snapshot the client has applied, -1 if none
+     * @return delta snapshot (full snapshot if the acknowledged frame is not known)
+     */
+    public Snapshot delta(long ackId) {
+        Frame current = latest;
+        return new Snapshot(find(ackId), current, current.scoreTracker, current.players);
+    }
+
+    /**
+     * Captures the current state of the game and makes it the base of the next snapshots. Called by the thread
+     * running the game, between its steps.
+     */
+    public void publish() {
+        long tick = game.getTick();
+        List<GameObject> sorted = new ArrayList<>(game.objects); //ids are given by the game as objects are added
+        sorted.sort(Comparator.comparingInt(o -> o.id));
+
+        Frame frame = new Frame(session | tick, sorted, latest, game.getScoreTracker().copy(), playerStates());
+        frames.set((int) (tick % HISTORY), frame);
+        latest = frame;
+    }
+
+    /**
+     * @return tick of the game the latest frame has been published at
+     */
+    public long getTick() {
+        return latest.id & 0xffffffffL;
+    }
+
+    /**
+     * @return frame with the given snapshot id, null if it is from another session or too old
+     */
+    private Frame find(long id) {
+        if (id < 0 || (id & ~0xffffffffL) != session)
+            return null;
+        Frame frame = frames.get((int) ((id & 0xffffffffL) % HISTORY));
+        return frame != null && frame.id == id ? frame : null;
+    }
+
+    private Snapshot.PlayerState[] playerStates() {
+        List<Snapshot.PlayerState> states = new ArrayList<>();
+        for (Player player : game.getPlayers()) {
+            if (player != null)
+                states.add(new Snapshot.PlayerState(player));
+        }
+        return states.toArray(new Snapshot.PlayerState[0]);
+    }
+}
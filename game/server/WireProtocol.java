@@ -0,0 +1,57 @@
+package game.server;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+
+/**
+ * Message framing shared by NioGameServer and the clients connecting to it.
+ * Every message is sent as [int length][byte type][payload], length counting the type and the payload.
+ */
+public class WireProtocol {
+    //client to server
+    public static final byte HELLO = 1; //payload: UTF-8 bytes of the nickname of the player
+    public static final byte INPUT = 2; //payload: Action encoded by ActionCodec
+    public static final byte NEW_GAME = 3; //payload: int asteroids, int enemies, int round time; moves the player to a new room
+    public static final byte JOIN = 4; //no payload; joins a room with a free place after the room of the player has been torn down
+
+    //server to client
+    public static final byte WELCOME = 10; //payload: serialised Player (sent again after a new game is started)
+    public static final byte SNAPSHOT = 11; //payload: serialised Snapshot
+    public static final byte ROOM_CLOSED = 12; //no payload; the room of the player has been torn down, JOIN or NEW_GAME to play on
+
+    public static final int HEADER = 5; //length and type
+    public static final int MAX_MESSAGE = 1 << 20; //messages longer than this are treated as a broken connection
+
+    /**
+     * Builds a message ready to be written to a channel.
+     *
+     * @param type    type of the message
+     * @param payload payload of the message
+     * @return buffer with the whole message, positioned at its start
+     */
+    public static ByteBuffer message(byte type, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + payload.length);
+        buffer.putInt(1 + payload.length).put(type).put(payload);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @return object serialised into bytes
+     */
+    public static byte[] serialise(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(object);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @return object read from the serialised bytes
+     */
+    public static Object deserialise(byte[] bytes, int offset, int length) throws IOException, ClassNotFoundException {
+        ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes, offset, length));
+        return in.readObject();
+    }
+}
@@ -1,7 +1,8 @@
 package utilities;
 
-import java.awt.Image;
+import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
@@ -10,6 +11,8 @@ import javax.imageio.ImageIO;
 
 /**
  * Image Manager class used to handling images used in the game.
+ * Loaded images are converted to the format of the screen, so drawing them needs no conversion, and kept in
+ * a cache so every image is read only once.
  */
 public class ImageManager {
 
@@ -17,17 +20,138 @@ public class ImageManager {
     public final static String ext = ".png"; //extension of the image
     public static Map<String, Image> images = new HashMap<String, Image>(); //map with the Image object and its name
 
+    //priority of the loaded images for the acceleration by Java2D, between 0 (never) and 1 (default)
+    public final static float ACCELERATION_PRIORITY = accelerationPriority(System.getProperty("asteroids.imageAcceleration"));
+
+    private static int hits, misses; //loads served from the cache and loads which read the file
+    private static long bytes; //bytes of the pixels of the images created by the manager and not released
+
     /**
-     * Loads image from given file name. Adds it to map of images
+     * Loads image from given file name, unless it has been loaded already. Adds it to map of images
      * @param fname name of the file with image
      * @return Image object with image loaded from the file
      * @throws IOException input/output exception
      */
-    public static Image loadImage(String fname) throws IOException {
-        BufferedImage img;
-        img = ImageIO.read(new File(path + fname + ext));
-        images.put(fname, img);
-        return img;
+    public static synchronized Image loadImage(String fname) throws IOException {
+        Image cached = images.get(fname);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        BufferedImage img = ImageIO.read(new File(path + fname + ext));
+        if (img == null)
+            throw new IOException("Unsupported image format of " + fname);
+        Image compatible = toCompatibleImage(img);
+        images.put(fname, compatible);
+        return compatible;
+    }
+
+    /**
+     * Copies the image into an image of the format of the screen, unless it is in that format already.
+     * @param image image to be converted
+     * @return image which is drawn without a conversion
+     */
+    public static BufferedImage toCompatibleImage(BufferedImage image) {
+        if (compatibleColorModel(image.getTransparency()).equals(image.getColorModel())) {
+            image.setAccelerationPriority(ACCELERATION_PRIORITY);
+            return image;
+        }
+        BufferedImage compatible = createCompatibleImage(image.getWidth(), image.getHeight(), image.getTransparency());
+        Graphics2D g = compatible.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
+        return compatible;
+    }
+
+    /**
+     * @return colour model of the images made by createCompatibleImage with the given transparency
+     */
+    private static ColorModel compatibleColorModel(int transparency) {
+        if (GraphicsEnvironment.isHeadless())
+            return new BufferedImage(1, 1, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE).getColorModel();
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().getColorModel(transparency);
+    }
+
+    /**
+     * @param value value of the setting, null if not set
+     * @return the priority clamped to [0, 1], 1 if the value is not set or not a number
+     */
+    private static float accelerationPriority(String value) {
+        if (value == null)
+            return 1;
+        try {
+            float priority = Float.parseFloat(value.trim());
+            if (!Float.isNaN(priority))
+                return Math.max(0, Math.min(1, priority));
+        } catch (NumberFormatException e) {
+            //reported below
+        }
+        System.err.println("Ignoring asteroids.imageAcceleration=" + value + ", expected a number between 0 and 1");
+        return 1;
+    }
+
+    /**
+     * Creates an empty image in the format of the screen (or an equivalent one in headless mode).
+     * @param width        width of the image
+     * @param height       height of the image
+     * @param transparency Transparency.OPAQUE, BITMASK or TRANSLUCENT
+     * @return new image
+     */
+    public static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+        BufferedImage image;
+        if (GraphicsEnvironment.isHeadless())
+            image = new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+        else
+            image = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(width, height, transparency);
+        image.setAccelerationPriority(ACCELERATION_PRIORITY);
+        synchronized (ImageManager.class) {
+            bytes += size(image);
+        }
+        return image;
+    }
+
+    /**
+     * Tells the manager an image it has created is no longer used, so it is not counted in the bytes held.
+     * @param image image created by createCompatibleImage
+     */
+    public static void release(Image image) {
+        if (image instanceof BufferedImage) {
+            synchronized (ImageManager.class) {
+                bytes -= size((BufferedImage) image);
+            }
+        }
+        image.flush();
+    }
+
+    private static long size(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * image.getColorModel().getPixelSize() / 8;
+    }
+
+    /**
+     * @return number of loads served from the cache
+     */
+    public static synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of loads which read the image file
+     */
+    public static synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return bytes of the pixels of the images held (loaded images, tiles which have not been released)
+     */
+    public static synchronized long getBytes() {
+        return bytes;
     }
 
-}
\ No newline at end of file
+}
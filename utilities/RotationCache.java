@@ -0,0 +1,73 @@
+package utilities;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of an image pre-rendered at a number of rotations and sizes. Drawing a rotated and scaled image with a
+ * transform is the slowest path of Graphics2D; with the cache it is a plain blit of the tile of the nearest
+ * rotation. Tiles are rendered the first time they are needed, at every size they are drawn at.
+ */
+public class RotationCache {
+    private final Image image; //image to be rotated
+    private final int buckets; //number of rotations, the angle is rounded to a multiple of 2 PI / buckets
+    private final Map<Integer, Image[]> tiles = new ConcurrentHashMap<>(); //rotations of the image, by size
+    private int rendered; //number of tiles rendered so far
+
+    /**
+     * @param image   image to be rotated
+     * @param buckets number of rotations of the image
+     */
+    public RotationCache(Image image, int buckets) {
+        this.image = image;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Draws the image centred at the given point.
+     *
+     * @param g     graphics to draw with
+     * @param x     x of the centre
+     * @param y     y of the centre
+     * @param angle rotation of the image in radians
+     * @param size  width and height of the image before the rotation
+     */
+    public void draw(Graphics2D g, double x, double y, double angle, int size) {
+        Image[] rotations = tiles.computeIfAbsent(size, s -> new Image[buckets]);
+        int bucket = Math.floorMod((int) Math.round(angle / (2 * Math.PI) * buckets), buckets);
+        Image tile = rotations[bucket];
+        if (tile == null)
+            rotations[bucket] = tile = render(bucket * 2 * Math.PI / buckets, size);
+        int half = tile.getWidth(null) / 2;
+        g.drawImage(tile, (int) Math.round(x) - half, (int) Math.round(y) - half, null);
+    }
+
+    /**
+     * @return tile with the image rotated by the angle, large enough to hold any rotation of it
+     */
+    private Image render(double angle, int size) {
+        int side = (int) Math.ceil(size * Math.sqrt(2)) | 1; //odd, so the centre is a whole pixel
+        BufferedImage tile = ImageManager.createCompatibleImage(side, side, Transparency.TRANSLUCENT);
+        Graphics2D g = tile.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        double imW = image.getWidth(null);
+        double imH = image.getHeight(null);
+        g.translate(side / 2.0, side / 2.0);
+        g.rotate(angle);
+        g.scale(size / imW, size / imH);
+        g.drawImage(image, (int) (-imW / 2), (int) (-imH / 2), null);
+        g.dispose();
+        rendered++;
+        return tile;
+    }
+
+    /**
+     * @return number of tiles rendered so far
+     */
+    public int getRendered() {
+        return rendered;
+    }
+}
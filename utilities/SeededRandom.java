@@ -0,0 +1,79 @@
+package utilities;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seedable and splittable random number generator (SplitMix64). Every game owns its own instance, so there
+ * is no lock and no contention between games, and a game started with the same seed makes the same decisions.
+ * An instance is not thread-safe; a task needing random numbers on another thread takes its own stream with split.
+ * Implements Serializable so a saved game continues with the same stream.
+ */
+public class SeededRandom implements Serializable {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L; //increment of the state, odd
+    private static final AtomicLong SEEDER = new AtomicLong(mix64(System.nanoTime())); //source of the default seeds
+
+    private long state; //state of the generator, advanced by GOLDEN_GAMMA with every number
+
+    /**
+     * @param seed seed of the stream, the same seed always gives the same numbers
+     */
+    public SeededRandom(long seed) {
+        state = seed;
+    }
+
+    /**
+     * @return seed which differs on every call, for games which do not need to be reproduced
+     */
+    public static long randomSeed() {
+        return mix64(SEEDER.getAndAdd(GOLDEN_GAMMA) ^ System.nanoTime());
+    }
+
+    /**
+     * @return new generator with a stream independent of this one; advances this generator
+     */
+    public SeededRandom split() {
+        return new SeededRandom(mix64(nextLong()));
+    }
+
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    /**
+     * @return uniformly distributed double in [0, 1)
+     */
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return uniformly distributed int in [0, bound)
+     */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * @return normally distributed double with mean 0 and standard deviation 1 (Marsaglia polar method)
+     */
+    public double nextGaussian() {
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        return v1 * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}